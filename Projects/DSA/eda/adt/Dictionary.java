@@ -1,6 +1,8 @@
 package eda.adt;
 
 import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface Dictionary<K, V> extends Iterable<K> {
     V put(K key, V value) ;
@@ -12,4 +14,58 @@ public interface Dictionary<K, V> extends Iterable<K> {
     void clear() ;
     Iterator<K> iterator();
 
+    /**
+     * Agrega todos los pares keys[i]-values[i]. Las implementaciones pueden reservar
+     * espacio una sola vez para todo el lote en lugar de crecer durante la carga.
+     *
+     * @param keys las claves a agregar
+     * @param values los valores asociados, en el mismo orden
+     * @throws IllegalArgumentException si los arrays no tienen la misma longitud
+     */
+    default void putAll(K[] keys, V[] values) {
+        if (keys.length != values.length) throw new IllegalArgumentException("keys y values deben tener la misma longitud");
+        for (int i = 0; i < keys.length; i++) put(keys[i], values[i]);
+    }
+    /**
+     * Obtiene los valores de todas las claves y los deja en values[i], o null si keys[i] no está.
+     *
+     * @param keys las claves a consultar
+     * @param values el array que recibe los valores, de la misma longitud que keys
+     * @return el número de claves encontradas
+     * @throws IllegalArgumentException si los arrays no tienen la misma longitud
+     */
+    default int getAll(K[] keys, V[] values) {
+        if (keys.length != values.length) throw new IllegalArgumentException("keys y values deben tener la misma longitud");
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = get(keys[i]);
+            if (values[i] != null) found++;
+        }
+        return found;
+    }
+    /**
+     * Elimina todas las claves indicadas.
+     *
+     * @param keys las claves a eliminar
+     * @return el número de entradas eliminadas
+     */
+    default int removeAll(K[] keys) {
+        int removed = 0;
+        for (K key : keys) {
+            if (contains(key)) {
+                remove(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+    /**
+     * Retorna un Stream secuencial sobre las claves, construido sobre spliterator(). Para
+     * procesarlo en paralelo basta con llamar a parallel() sobre el resultado.
+     *
+     * @return un Stream sobre las claves
+     */
+    default Stream<K> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 }
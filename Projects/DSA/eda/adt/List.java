@@ -2,7 +2,11 @@ package eda.adt;
 
 import eda.exceptions.WrongIndexException;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface List<E> extends Iterable<E> {
     void insert(int pos, E data) throws WrongIndexException;
@@ -11,4 +15,138 @@ public interface List<E> extends Iterable<E> {
     int search(E data);
     Iterator<E> iterator();
     int size();
+
+    /**
+     * Inserta todos los elementos de otra lista, en su orden, a partir de la posición indicada.
+     * Las implementaciones pueden localizar la posición una sola vez para todo el lote en lugar
+     * de hacerlo para cada elemento.
+     *
+     * @param pos la posición en la que insertar el primer elemento
+     * @param other la lista cuyos elementos se insertan, que puede ser esta misma
+     * @throws WrongIndexException si la posición es inválida
+     */
+    default void insertAll(int pos, List<? extends E> other) throws WrongIndexException {
+        if (pos < 0 || pos > size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        Object[] items = new Object[other.size()];
+        int i = 0;
+        for (E data : other) items[i++] = data;
+        for (Object data : items) {
+            @SuppressWarnings("unchecked") E e = (E) data;
+            insert(pos++, e);
+        }
+    }
+    /**
+     * Retorna una vista de las posiciones [from, to) de esta lista. Las operaciones sobre la vista
+     * se traducen a esta lista desplazando las posiciones, y los cambios se ven en ambas. Si el
+     * tamaño de esta lista cambia por otro medio que no sea la vista, la siguiente operación de la
+     * vista lanza ConcurrentModificationException.
+     * <p>
+     * Cada operación de la vista cuesta lo mismo que la operación equivalente de la lista, y el
+     * iterador de la vista llama a get para cada posición. Las implementaciones que puedan
+     * recorrer un tramo más deprisa deberían redefinir este método.
+     *
+     * @param from la primera posición incluida
+     * @param to la primera posición excluida
+     * @return la vista de las posiciones indicadas
+     * @throws WrongIndexException si las posiciones son inválidas
+     */
+    default List<E> subList(int from, int to) throws WrongIndexException {
+        if (from < 0 || from > size()) throw new WrongIndexException("Index " + from + " is invalid. ");
+        if (to < from || to > size()) throw new WrongIndexException("Index " + to + " is invalid. ");
+        List<E> parent = this;
+        return new List<>() {
+            private int size = to - from;
+            private int expectedSize = parent.size();
+
+            @Override
+            public void insert(int pos, E data) throws WrongIndexException {
+                checkForComodification();
+                if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+                parent.insert(from + pos, data);
+                size++;
+                expectedSize = parent.size();
+            }
+            @Override
+            public void insertAll(int pos, List<? extends E> other) throws WrongIndexException {
+                checkForComodification();
+                if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+                parent.insertAll(from + pos, other);
+                size += parent.size() - expectedSize;
+                expectedSize = parent.size();
+            }
+            @Override
+            public void delete(int pos) throws WrongIndexException {
+                checkForComodification();
+                if (pos < 0 || pos >= size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+                parent.delete(from + pos);
+                size--;
+                expectedSize = parent.size();
+            }
+            @Override
+            public E get(int pos) throws WrongIndexException {
+                checkForComodification();
+                if (pos < 0 || pos >= size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+                return parent.get(from + pos);
+            }
+            @Override
+            public int search(E data) {
+                checkForComodification();
+                try {
+                    for (int i = 0; i < size; i++) {
+                        E current = parent.get(from + i);
+                        if (current != null && current.equals(data)) return i;
+                    }
+                } catch (WrongIndexException e) {
+                    throw new IllegalStateException(e);
+                }
+                return -1;
+            }
+            @Override
+            public Iterator<E> iterator() {
+                checkForComodification();
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    public boolean hasNext() {
+                        return index < size;
+                    }
+                    public E next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        try {
+                            return get(index++);
+                        } catch (WrongIndexException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                };
+            }
+            @Override
+            public int size() {
+                checkForComodification();
+                return size;
+            }
+            @Override
+            public String toString() {
+                StringBuilder result = new StringBuilder("[");
+                Iterator<E> it = iterator();
+                while (it.hasNext()) {
+                    result.append(it.next());
+                    if (it.hasNext()) result.append(" -> ");
+                }
+                return result.append("]").toString();
+            }
+            private void checkForComodification() {
+                if (parent.size() != expectedSize) throw new ConcurrentModificationException();
+            }
+        };
+    }
+    /**
+     * Retorna un Stream secuencial sobre los elementos, construido sobre spliterator(). Para
+     * procesarlo en paralelo basta con llamar a parallel() sobre el resultado.
+     *
+     * @return un Stream sobre los elementos
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 }
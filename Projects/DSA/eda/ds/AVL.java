@@ -1,5 +1,6 @@
 package eda.ds;
 
+import eda.exceptions.WrongIndexException;
 import java.util.*;
 /**
  * <h3>AVL - Árbol AVL (Auto-Balanceado, Georgii Adelson-Velskii y Yevgeniy Landis)</h3>
@@ -16,9 +17,19 @@ import java.util.*;
  *     <li>delete: O(log N), la eliminación de un nodo puede requerir rebalancear el árbol.</li>
  *     <li>search: O(log N), donde N es el tamaño actual del árbol. La búsqueda de un elemento se realiza de manera eficiente gracias a la estructura balanceada.</li>
  *     <li>max/min: O(log N), donde N es el tamaño actual del árbol. Encontrar el valor máximo o mínimo es rápido debido a la estructura del árbol.</li>
+ *     <li>rank/select: O(log N). Cada nodo guarda el tamaño de su subárbol, que se mantiene en las rotaciones igual que la altura.</li>
+ *     <li>countInRange: O(log N), como diferencia de dos rangos.</li>
+ *     <li>percentile: O(log N), mediante select.</li>
+ *     <li>floor/ceiling/lower/higher: O(log N), con un único descenso desde la raíz.</li>
+ *     <li>range: O(log N + k) para recorrer los k elementos del rango.</li>
+ *     <li>fromSorted: O(N), construyendo directamente un árbol equilibrado.</li>
+ *     <li>merge: O(M log(N/M + 1)), siendo M el tamaño del menor de los dos árboles.</li>
  * </ul>
  * <p>
- * Complejidad espacial de todas las operaciones: O(1).
+ * Complejidad espacial de add y delete: O(1). No reservan más memoria que el TreeNode nuevo: el
+ * camino hasta la raíz se guarda en un array reutilizado en lugar de en una pila nueva en cada
+ * llamada. merge recurre O(log N) niveles con split y join, y los iteradores en inorden y de rango
+ * guardan una pila de O(log N) nodos.
  *
  * @param <E> el tipo de elementos que se almacenan en el árbol, los cuales deben ser comparables
  * @author Marcos del Amo Fernández y Gabriela Potenciano Carpintero
@@ -27,6 +38,16 @@ import java.util.*;
 public class AVL<E extends Comparable<E>> implements Iterable<E> {
     public TreeNode<E> root;
     public int size;
+    // Camino desde la raíz que recorren add y delete, reutilizado entre llamadas para que no
+    // reserven memoria. La altura de un AVL es como mucho 1.44 log2(N + 2), así que 48 niveles
+    // bastan para cualquier tamaño que quepa en un int.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private TreeNode<E>[] path = (TreeNode<E>[]) new TreeNode[48];
+    // Último elemento tomado por fromSorted, para comprobar que la entrada está ordenada.
+    private E lastBuilt;
+    // Resultado de split: los elementos menores que el valor y los mayores o iguales. Solo
+    // tienen sentido durante merge, que los vacía al terminar para no retener nodos.
+    private TreeNode<E> splitLeft, splitRight;
     /**
      * Constructor que crea un árbol AVL vacío.
      */
@@ -38,9 +59,20 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
      */
     public AVL(TreeNode<E> root) {
         this.root = root;
-        this.size = 0;
-        if (this.root==null) return;
-        for (E val:this) this.size++;
+        this.size = recount(root);
+    }
+    /**
+     * Recalcula la altura y el tamaño de todos los nodos de un subárbol construido desde fuera.
+     *
+     * @param node la raíz del subárbol
+     * @return el número de nodos del subárbol
+     */
+    private int recount(TreeNode<E> node) {
+        if (node == null) return 0;
+        recount(node.left);
+        recount(node.right);
+        update(node);
+        return node.size;
     }
     /**
      * Clase que representa un nodo en el árbol AVL.
@@ -52,6 +84,7 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
         TreeNode<E> left;
         TreeNode<E> right;
         int height;
+        int size;
         /**
          * Constructor que inicializa un nodo con un valor, subárboles izquierdo y derecho, y altura dados.
          *
@@ -65,6 +98,7 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
             this.left = left;
             this.right = right;
             this.height = height;
+            this.size = 1 + (left == null ? 0 : left.size) + (right == null ? 0 : right.size);
         }
         /**
          * Constructor que inicializa un nodo con un valor dado y sin subárboles.
@@ -92,16 +126,16 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
             return;
         }
         TreeNode<E> parent = null, node = this.root;
-        Deque<TreeNode<E>> stack = new ArrayDeque<>();
+        int depth = 0;
         while (node != null) {
             parent = node;
-            stack.push(parent);
+            push(depth++, parent);
             if (val.compareTo(node.val) > 0) node = node.right;
             else node = node.left;
         }
-        if (val.compareTo(parent.val) < 0) parent.left = new TreeNode<>(val);
-        else parent.right = new TreeNode<>(val);
-        rebalance(stack);
+        if (val.compareTo(parent.val) > 0) parent.right = new TreeNode<>(val);
+        else parent.left = new TreeNode<>(val);
+        rebalance(depth);
     }
     /**
      * Elimina un valor del árbol, asegurando que el árbol se mantenga balanceado.
@@ -110,20 +144,23 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
      */
     public void delete(E val) {
         if (val == null || this.root == null) return;
-        this.size--;
         TreeNode<E> parent = null;
         TreeNode<E> node = this.root;
-        Deque<TreeNode<E>> stack = new ArrayDeque<>();
+        int depth = 0;
         while (node != null && !node.val.equals(val)) {
             parent = node;
-            stack.push(parent);
+            push(depth++, parent);
             if (val.compareTo(node.val) > 0) {
                 node = node.right;
             } else {
                 node = node.left;
             }
         }
-        if (node == null) return;
+        if (node == null) {
+            Arrays.fill(path, 0, depth, null);
+            return;
+        }
+        this.size--;
         if (node.left == null || node.right == null) {
             TreeNode<E> child = (node.left != null) ? node.left : node.right;
             if (parent == null) {
@@ -136,10 +173,10 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
         } else {
             TreeNode<E> successor = node.right;
             TreeNode<E> successorParent = node;
-            stack.push(successorParent);
+            push(depth++, successorParent);
             while (successor.left != null) {
                 successorParent = successor;
-                stack.push(successorParent);
+                push(depth++, successorParent);
                 successor = successor.left;
             }
             node.val = successor.val;
@@ -149,35 +186,57 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
                 successorParent.left = successor.right;
             }
         }
-        rebalance(stack);
+        rebalance(depth);
     }
     /**
-     * Rebala el árbol AVL después de una inserción o eliminación.
+     * Guarda un nodo del camino en la posición depth, ampliando el array si el árbol es más
+     * alto de lo previsto (solo puede pasar con un árbol construido desde fuera sin equilibrar).
      *
-     * @param stack la pila de nodos que necesitan ser balanceados
+     * @param depth la profundidad del nodo en el camino
+     * @param node el nodo
      */
-    private void rebalance(Deque<TreeNode<E>> stack) {
-        while (!stack.isEmpty()) {
-            TreeNode<E> node = stack.pop();
-            updateHeight(node);
-            int balanceFactor = getBalanceFactor(node);
-            if (balanceFactor > 1) {
-                if (getBalanceFactor(node.left) < 0)
-                    node.left = rotateLeft(node.left);
-                node = rotateRight(node);
-            } else if (balanceFactor < -1) {
-                if (getBalanceFactor(node.right) > 0)
-                    node.right = rotateRight(node.right);
-                node = rotateLeft(node);
-            }
-            if (stack.isEmpty()) this.root = node;
+    private void push(int depth, TreeNode<E> node) {
+        if (depth == path.length) path = Arrays.copyOf(path, 2 * depth);
+        path[depth] = node;
+    }
+    /**
+     * Rebala el árbol AVL después de una inserción o eliminación, subiendo por el camino
+     * guardado en path[0..depth) y vaciándolo a la vez para no retener nodos borrados.
+     *
+     * @param depth el número de nodos del camino
+     */
+    private void rebalance(int depth) {
+        while (depth > 0) {
+            TreeNode<E> old = path[--depth], node = balance(old);
+            path[depth] = null;
+            if (depth == 0) this.root = node;
             else {
-                TreeNode<E> parent = stack.peek();
-                if (parent.val.compareTo(node.val) > 0) parent.left = node;
+                TreeNode<E> parent = path[depth - 1];
+                if (parent.left == old) parent.left = node;
                 else parent.right = node;
             }
         }
     }
+    /**
+     * Actualiza el nodo y, si sus hijos difieren en altura en más de uno, lo rota.
+     *
+     * @param node la raíz del subárbol a balancear
+     * @return la nueva raíz del subárbol
+     */
+    private TreeNode<E> balance(TreeNode<E> node) {
+        update(node);
+        int balanceFactor = getBalanceFactor(node);
+        if (balanceFactor > 1) {
+            if (getBalanceFactor(node.left) < 0)
+                node.left = rotateLeft(node.left);
+            node = rotateRight(node);
+        } else if (balanceFactor < -1) {
+            if (getBalanceFactor(node.right) > 0)
+                node.right = rotateRight(node.right);
+            node = rotateLeft(node);
+        }
+        return node;
+    }
     /**
      * Realiza una rotación hacia la izquierda en el subárbol enraizado en el nodo dado.
      *
@@ -188,8 +247,8 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
         TreeNode<E> Y = X.right;
         X.right = Y.left;
         Y.left = X;
-        updateHeight(X);
-        updateHeight(Y);
+        update(X);
+        update(Y);
         return Y;
     }
     /**
@@ -202,8 +261,8 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
         TreeNode<E> Y = X.left;
         X.left = Y.right;
         Y.right = X;
-        updateHeight(X);
-        updateHeight(Y);
+        update(X);
+        update(Y);
         return Y;
     }
     /**
@@ -214,11 +273,21 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
      */
     private int height(TreeNode<E> node) {return (node == null) ? -1 : node.height;}
     /**
-     * Actualiza la altura del nodo dado.
+     * Retorna el tamaño del subárbol enraizado en el nodo dado.
+     *
+     * @param node la raíz del subárbol
+     * @return el número de nodos del subárbol, o 0 si el nodo es null
+     */
+    private int sizeOf(TreeNode<E> node) {return (node == null) ? 0 : node.size;}
+    /**
+     * Actualiza la altura y el tamaño del subárbol del nodo dado a partir de los de sus hijos.
      *
-     * @param node el nodo cuya altura se quiere actualizar
+     * @param node el nodo que se quiere actualizar
      */
-    private void updateHeight (TreeNode<E> node) {node.height = Math.max(height(node.left), height(node.right)) + 1;}
+    private void update(TreeNode<E> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+    }
     /**
      * Retorna el factor de balance del nodo dado.
      *
@@ -226,6 +295,114 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
      * @return el factor de balance del nodo
      */
     private int getBalanceFactor(TreeNode<E> node) {return  height(node.left) - height(node.right);}
+    /**
+     * Construye un árbol perfectamente equilibrado a partir de un array ordenado, en O(N).
+     *
+     * @param sorted los elementos en orden ascendente
+     * @return el árbol con esos elementos
+     * @throws IllegalArgumentException si el array no está ordenado
+     */
+    public static <E extends Comparable<E>> AVL<E> fromSorted(E[] sorted) {
+        return fromSorted(Arrays.asList(sorted).iterator(), sorted.length);
+    }
+    /**
+     * Construye un árbol perfectamente equilibrado con los n primeros elementos de un iterador
+     * ordenado, en O(N). Los nodos se crean de abajo arriba en inorden, de modo que cada nodo
+     * nace ya con la altura y el tamaño de sus hijos, sin rotaciones ni pila de camino.
+     *
+     * @param sorted el iterador sobre los elementos en orden ascendente
+     * @param n el número de elementos a tomar del iterador
+     * @return el árbol con esos elementos
+     * @throws IllegalArgumentException si los elementos no están ordenados
+     * @throws NoSuchElementException si el iterador tiene menos de n elementos
+     */
+    public static <E extends Comparable<E>> AVL<E> fromSorted(Iterator<? extends E> sorted, int n) {
+        AVL<E> tree = new AVL<>();
+        tree.root = tree.build(sorted, n);
+        tree.size = n;
+        tree.lastBuilt = null;
+        return tree;
+    }
+    /**
+     * Construye en inorden un subárbol equilibrado con los n siguientes elementos del iterador.
+     */
+    private TreeNode<E> build(Iterator<? extends E> sorted, int n) {
+        if (n == 0) return null;
+        int leftSize = n / 2;
+        TreeNode<E> left = build(sorted, leftSize);
+        E val = sorted.next();
+        if (val == null || (lastBuilt != null && lastBuilt.compareTo(val) > 0))
+            throw new IllegalArgumentException("Los elementos deben estar ordenados y no ser null");
+        lastBuilt = val;
+        TreeNode<E> right = build(sorted, n - leftSize - 1);
+        return new TreeNode<>(val, left, right, Math.max(height(left), height(right)) + 1);
+    }
+    /**
+     * Mueve todos los elementos de otro árbol a este, dejando el otro vacío. Como add, conserva
+     * los repetidos. En lugar de insertar uno a uno, divide el otro árbol por la raíz de este y
+     * une recursivamente las mitades con split y join, reutilizando los nodos de ambos árboles:
+     * cuesta O(M log(N/M + 1)) siendo M el tamaño del menor, frente a O(M log(N + M)) con add.
+     *
+     * @param other el árbol cuyos elementos se mueven a este
+     */
+    public void merge(AVL<E> other) {
+        if (other == this || other.root == null) return;
+        this.root = union(this.root, other.root);
+        this.size += other.size;
+        splitLeft = splitRight = null;
+        other.root = null;
+        other.size = 0;
+    }
+    private TreeNode<E> union(TreeNode<E> a, TreeNode<E> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (height(a) < height(b)) {
+            TreeNode<E> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        TreeNode<E> left = a.left, right = a.right;
+        split(b, a.val);
+        TreeNode<E> lower = splitLeft, upper = splitRight;
+        return join(union(left, lower), a, union(right, upper));
+    }
+    /**
+     * Divide el subárbol en los elementos menores que val (splitLeft) y los mayores o iguales
+     * (splitRight), uniendo con join los trozos que quedan a cada lado del camino de búsqueda.
+     */
+    private void split(TreeNode<E> node, E val) {
+        if (node == null) {
+            splitLeft = splitRight = null;
+            return;
+        }
+        TreeNode<E> left = node.left, right = node.right;
+        if (node.val.compareTo(val) >= 0) {
+            split(left, val);
+            splitRight = join(splitRight, node, right);
+        } else {
+            split(right, val);
+            splitLeft = join(left, node, splitLeft);
+        }
+    }
+    /**
+     * Une dos subárboles AVL con un nodo intermedio, siendo todos los elementos de left menores o
+     * iguales que los de mid y right. Baja por el lado del árbol más alto hasta encontrar un
+     * subárbol de altura parecida a la del otro, cuelga ahí mid y rebalancea al volver: O(|h(left) - h(right)| + 1).
+     */
+    private TreeNode<E> join(TreeNode<E> left, TreeNode<E> mid, TreeNode<E> right) {
+        if (height(left) > height(right) + 1) {
+            left.right = join(left.right, mid, right);
+            return balance(left);
+        }
+        if (height(right) > height(left) + 1) {
+            right.left = join(left, mid, right.left);
+            return balance(right);
+        }
+        mid.left = left;
+        mid.right = right;
+        update(mid);
+        return mid;
+    }
     /**
      * Busca un valor en el árbol.
      *
@@ -233,18 +410,136 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
      * @return el nodo que contiene el valor, o null si el valor no se encuentra
      */
     public TreeNode<E> search(E val) {
+        if (val == null) return null;
         TreeNode<E> node = this.root;
         while (node != null) {
-            if (val.compareTo(node.val) > 0){
-                if (node.right != null && node.right.val == val) return node.right;
-                else node = node.right;
-            } else {
-                if (node.left != null && node.left.val == val) return node.left;
-                else node = node.left;
-            }
+            int cmp = val.compareTo(node.val);
+            if (cmp == 0) return node;
+            node = (cmp < 0) ? node.left : node.right;
         }
         return null;
     }
+    /**
+     * Retorna el número de elementos del árbol estrictamente menores que el valor dado,
+     * es decir, la posición que ocuparía el valor en el recorrido en inorden.
+     *
+     * @param val el valor de referencia
+     * @return el número de elementos menores que val
+     */
+    public int rank(E val) {return countBelow(val, false);}
+    /**
+     * Retorna el k-ésimo menor elemento del árbol, empezando en 0.
+     * Si k es menor que 0 o igual o mayor que el tamaño del árbol,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param k la posición del elemento en inorden
+     * @return el elemento en la posición k
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public E select(int k) throws WrongIndexException {
+        if (k < 0 || k >= sizeOf(this.root)) throw new WrongIndexException("Index " + k + " is invalid. ");
+        return selectNode(k).val;
+    }
+    /**
+     * Retorna el número de elementos del árbol comprendidos entre lo y hi, ambos incluidos.
+     *
+     * @param lo el límite inferior
+     * @param hi el límite superior
+     * @return el número de elementos en [lo, hi], o 0 si lo es mayor que hi
+     */
+    public int countInRange(E lo, E hi) {
+        if (lo.compareTo(hi) > 0) return 0;
+        return countBelow(hi, true) - countBelow(lo, false);
+    }
+    /**
+     * Retorna el percentil p de los elementos del árbol por el método del rango más cercano:
+     * el menor elemento que es mayor o igual que el p% de los elementos.
+     *
+     * @param p el percentil, entre 0 y 100
+     * @return el elemento del percentil p, o null si el árbol está vacío
+     * @throws IllegalArgumentException si p no está entre 0 y 100
+     */
+    public E percentile(double p) {
+        if (!(p >= 0 && p <= 100)) throw new IllegalArgumentException("El percentil debe estar entre 0 y 100");
+        int n = sizeOf(this.root);
+        if (n == 0) return null;
+        int k = (int) Math.ceil(p / 100 * n) - 1;
+        return selectNode(Math.max(0, Math.min(k, n - 1))).val;
+    }
+    /**
+     * Cuenta los elementos menores que val (o menores o iguales, si inclusive es true)
+     * descendiendo una sola vez y sumando los tamaños de los subárboles que quedan a la izquierda.
+     */
+    private int countBelow(E val, boolean inclusive) {
+        int count = 0;
+        TreeNode<E> node = this.root;
+        while (node != null) {
+            int cmp = val.compareTo(node.val);
+            if (cmp > 0 || (inclusive && cmp == 0)) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else node = node.left;
+        }
+        return count;
+    }
+    /**
+     * Desciende hasta el nodo en la posición k en inorden, que debe ser válida.
+     */
+    private TreeNode<E> selectNode(int k) {
+        TreeNode<E> node = this.root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (k < leftSize) node = node.left;
+            else if (k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else return node;
+        }
+    }
+    /**
+     * Retorna el mayor elemento menor o igual que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el mayor elemento menor o igual que val, o null si no existe
+     */
+    public E floor(E val) {return bound(val, true, true);}
+    /**
+     * Retorna el mayor elemento estrictamente menor que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el mayor elemento menor que val, o null si no existe
+     */
+    public E lower(E val) {return bound(val, true, false);}
+    /**
+     * Retorna el menor elemento mayor o igual que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el menor elemento mayor o igual que val, o null si no existe
+     */
+    public E ceiling(E val) {return bound(val, false, true);}
+    /**
+     * Retorna el menor elemento estrictamente mayor que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el menor elemento mayor que val, o null si no existe
+     */
+    public E higher(E val) {return bound(val, false, false);}
+    /**
+     * Desciende una sola vez desde la raíz quedándose con el último nodo que cumple la cota:
+     * por debajo de val si below es true, por encima en otro caso, incluyendo val si inclusive es true.
+     */
+    private E bound(E val, boolean below, boolean inclusive) {
+        TreeNode<E> node = this.root, best = null;
+        while (node != null) {
+            int cmp = node.val.compareTo(val);
+            boolean fits = below ? (cmp < 0 || (inclusive && cmp == 0)) : (cmp > 0 || (inclusive && cmp == 0));
+            if (fits) {
+                best = node;
+                node = below ? node.right : node.left;
+            } else node = below ? node.left : node.right;
+        }
+        return (best == null) ? null : best.val;
+    }
     /**
      * Retorna el nodo con el valor máximo en el árbol.
      *
@@ -311,6 +606,35 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
      * @return un iterador para recorrer el árbol en postorden
      */
     public Iterator<E> postorderIterator(){return new PostorderIterator<>(this.root);}
+    /**
+     * Retorna un iterador en inorden sobre los elementos comprendidos entre lo y hi, ambos incluidos.
+     * Desciende una sola vez hasta lo y avanza en orden hasta pasar de hi, así que recorrer k
+     * elementos cuesta O(log N + k).
+     *
+     * @param lo el límite inferior
+     * @param hi el límite superior
+     * @return un iterador sobre los elementos en [lo, hi]
+     */
+    public Iterator<E> range(E lo, E hi) {return range(lo, true, hi, true);}
+    /**
+     * Retorna un iterador en inorden sobre los elementos entre lo y hi, incluyendo o no cada límite.
+     * Un límite null indica que el rango no está acotado por ese lado.
+     *
+     * @param lo el límite inferior, o null
+     * @param loInclusive si lo forma parte del rango
+     * @param hi el límite superior, o null
+     * @param hiInclusive si hi forma parte del rango
+     * @return un iterador sobre los elementos del rango
+     */
+    public Iterator<E> range(E lo, boolean loInclusive, E hi, boolean hiInclusive) {
+        return new RangeIterator<>(this.root, lo, loInclusive, hi, hiInclusive, false);
+    }
+    /**
+     * Igual que range, pero recorriendo el rango de mayor a menor.
+     */
+    Iterator<E> descendingRange(E lo, boolean loInclusive, E hi, boolean hiInclusive) {
+        return new RangeIterator<>(this.root, lo, loInclusive, hi, hiInclusive, true);
+    }
     /**
      * Retorna un iterador para recorrer el árbol por defecto, en este caso por niveles
      *
@@ -398,4 +722,53 @@ public class AVL<E extends Comparable<E>> implements Iterable<E> {
             return node.val;
         }
     }
-}
\ No newline at end of file
+    /**
+     * Clase que implementa un iterador sobre un rango del árbol, en orden ascendente o descendente.
+     * Como InorderIterator, guarda en la pila el camino pendiente, pero al bajar descarta los nodos
+     * que quedan antes del inicio del rango, y termina en cuanto la cima de la pila pasa del final.
+     *
+     * @param <E> el tipo de elemento que contiene el árbol, el cual debe ser comparable
+     */
+    private static class RangeIterator<E extends Comparable<E>> implements Iterator<E> {
+        Deque<TreeNode<E>> stack = new ArrayDeque<>();
+        private final E lo, hi;
+        private final boolean loInclusive, hiInclusive, descending;
+        public RangeIterator(TreeNode<E> root, E lo, boolean loInclusive, E hi, boolean hiInclusive, boolean descending) {
+            this.lo = lo;
+            this.hi = hi;
+            this.loInclusive = loInclusive;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            dive(root);
+        }
+        private boolean aboveLo(E val) {
+            if (lo == null) return true;
+            int cmp = val.compareTo(lo);
+            return cmp > 0 || (loInclusive && cmp == 0);
+        }
+        private boolean belowHi(E val) {
+            if (hi == null) return true;
+            int cmp = val.compareTo(hi);
+            return cmp < 0 || (hiInclusive && cmp == 0);
+        }
+        private void dive(TreeNode<E> node) {
+            while (node != null) {
+                if (descending ? belowHi(node.val) : aboveLo(node.val)) {
+                    stack.push(node);
+                    node = descending ? node.right : node.left;
+                } else node = descending ? node.left : node.right;
+            }
+        }
+        public boolean hasNext() {
+            if (stack.isEmpty()) return false;
+            E val = stack.peek().val;
+            return descending ? aboveLo(val) : belowHi(val);
+        }
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            TreeNode<E> node = stack.pop();
+            dive(descending ? node.left : node.right);
+            return node.val;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package eda.ds;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+/**<h3>AVLSet - Adaptador NavigableSet sobre un árbol AVL
+ * </h3>
+ * Permite usar un AVL allí donde el código espera un java.util.NavigableSet (por ejemplo en
+ * lugar de un TreeSet). No copia los elementos: todas las operaciones se delegan en el árbol, y
+ * los cambios hechos por el conjunto o directamente sobre el árbol se ven en ambos.
+ * <p>
+ * Las vistas que retornan subSet, headSet, tailSet y descendingSet son también AVLSet sobre el
+ * mismo árbol con unos límites y un sentido de recorrido; sus consultas se resuelven con los
+ * iteradores de rango del AVL, sin recorrer el árbol entero. A diferencia de TreeSet, pedir una
+ * subvista con límites fuera de la vista actual no lanza excepción, sino que se queda con la
+ * intersección de ambos rangos.
+ * <p>
+ * Un conjunto no admite repetidos, así que add no inserta un elemento que ya esté. Si el árbol
+ * envuelto ya contenía repetidos, el conjunto los verá como elementos distintos.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>add/remove/contains: O(log N).</li>
+ *     <li>floor/ceiling/lower/higher/first/last: O(log N).</li>
+ *     <li>size: O(1) sobre el conjunto completo y O(log N) sobre una subvista, usando los tamaños de subárbol.</li>
+ *     <li>iterator: O(log N + k) para recorrer k elementos.</li>
+ *     <li>iterator().remove: O(log N), porque reposiciona el iterador tras el borrado.</li>
+ * </ul>
+ *
+ * @param <E> el tipo de elementos del conjunto, los cuales deben ser comparables
+ * @author Marcos del Amo Fernández
+ * @version Práctica 2 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see AVL
+ * @see SortedTable
+ */
+public class AVLSet<E extends Comparable<E>> extends AbstractSet<E> implements NavigableSet<E> {
+    private final AVL<E> tree;
+    private final E lo, hi;
+    private final boolean loInclusive, hiInclusive, descending;
+
+    /**
+     * Constructor que crea un conjunto vacío sobre un AVL nuevo.
+     */
+    public AVLSet() {this(new AVL<>());}
+    /**
+     * Constructor que envuelve un AVL existente.
+     *
+     * @param tree el árbol que se quiere ver como conjunto
+     */
+    public AVLSet(AVL<E> tree) {this(tree, null, true, null, true, false);}
+    private AVLSet(AVL<E> tree, E lo, boolean loInclusive, E hi, boolean hiInclusive, boolean descending) {
+        this.tree = tree;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+        this.descending = descending;
+    }
+    private boolean aboveLo(E val) {
+        if (lo == null) return true;
+        int cmp = val.compareTo(lo);
+        return cmp > 0 || (loInclusive && cmp == 0);
+    }
+    private boolean belowHi(E val) {
+        if (hi == null) return true;
+        int cmp = val.compareTo(hi);
+        return cmp < 0 || (hiInclusive && cmp == 0);
+    }
+    private boolean inRange(E val) {
+        return aboveLo(val) && belowHi(val);
+    }
+    /**
+     * Retorna el primer elemento en orden natural del rango [from, to] intersecado con los límites
+     * de esta vista, recorriéndolo hacia arriba o hacia abajo según fromBottom.
+     */
+    private E firstIn(E from, boolean fromInclusive, E to, boolean toInclusive, boolean fromBottom) {
+        E l = lo, h = hi;
+        boolean li = loInclusive, hiInc = hiInclusive;
+        if (from != null) {
+            int cmp = (l == null) ? 1 : from.compareTo(l);
+            if (cmp > 0) {l = from; li = fromInclusive;}
+            else if (cmp == 0) li &= fromInclusive;
+        }
+        if (to != null) {
+            int cmp = (h == null) ? -1 : to.compareTo(h);
+            if (cmp < 0) {h = to; hiInc = toInclusive;}
+            else if (cmp == 0) hiInc &= toInclusive;
+        }
+        Iterator<E> it = fromBottom ? tree.range(l, li, h, hiInc) : tree.descendingRange(l, li, h, hiInc);
+        return it.hasNext() ? it.next() : null;
+    }
+    /*
+     * Las cuatro consultas de NavigableSet se expresan en el orden de la vista; en una vista
+     * descendente lower y higher (y floor y ceiling) intercambian su sentido en el árbol.
+     */
+    private E below(E val, boolean inclusive) {return firstIn(null, true, val, inclusive, false);}
+    private E above(E val, boolean inclusive) {return firstIn(val, inclusive, null, true, true);}
+    @Override
+    public E lower(E e) {return descending ? above(e, false) : below(e, false);}
+    @Override
+    public E floor(E e) {return descending ? above(e, true) : below(e, true);}
+    @Override
+    public E ceiling(E e) {return descending ? below(e, true) : above(e, true);}
+    @Override
+    public E higher(E e) {return descending ? below(e, false) : above(e, false);}
+    @Override
+    public E first() {
+        E val = firstIn(null, true, null, true, !descending);
+        if (val == null) throw new NoSuchElementException();
+        return val;
+    }
+    @Override
+    public E last() {
+        E val = firstIn(null, true, null, true, descending);
+        if (val == null) throw new NoSuchElementException();
+        return val;
+    }
+    @Override
+    public E pollFirst() {
+        if (isEmpty()) return null;
+        E val = first();
+        tree.delete(val);
+        return val;
+    }
+    @Override
+    public E pollLast() {
+        if (isEmpty()) return null;
+        E val = last();
+        tree.delete(val);
+        return val;
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        E val = (E) o;
+        return inRange(val) && tree.search(val) != null;
+    }
+    /**
+     * Añade el elemento si no estaba ya en el conjunto.
+     *
+     * @param e el elemento a añadir
+     * @return true si se ha añadido, false si ya estaba
+     * @throws IllegalArgumentException si el elemento queda fuera de los límites de la vista
+     */
+    @Override
+    public boolean add(E e) {
+        if (e == null) throw new NullPointerException();
+        if (!inRange(e)) throw new IllegalArgumentException("El elemento " + e + " está fuera del rango de la vista");
+        if (tree.search(e) != null) return false;
+        tree.add(e);
+        return true;
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        tree.delete((E) o);
+        return true;
+    }
+    @Override
+    public int size() {
+        if (lo == null && hi == null) return tree.getSize();
+        int upTo = (hi == null) ? tree.getSize() : tree.rank(hi) + (hiInclusive ? tree.countInRange(hi, hi) : 0);
+        int before = (lo == null) ? 0 : tree.rank(lo) + (loInclusive ? 0 : tree.countInRange(lo, lo));
+        return Math.max(0, upTo - before);
+    }
+    @Override
+    public boolean isEmpty() {
+        return firstIn(null, true, null, true, true) == null;
+    }
+    @Override
+    public void clear() {
+        if (lo == null && hi == null) {
+            tree.root = null;
+            tree.size = 0;
+        } else super.clear();
+    }
+    @Override
+    public Iterator<E> iterator() {
+        return new CIterator(descending);
+    }
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new CIterator(!descending);
+    }
+    @Override
+    public NavigableSet<E> descendingSet() {
+        return new AVLSet<>(tree, lo, loInclusive, hi, hiInclusive, !descending);
+    }
+    @Override
+    public Comparator<? super E> comparator() {
+        return descending ? Collections.reverseOrder() : null;
+    }
+    @Override
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        if (descending) return sub(toElement, toInclusive, fromElement, fromInclusive);
+        return sub(fromElement, fromInclusive, toElement, toInclusive);
+    }
+    @Override
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        return descending ? sub(toElement, inclusive, null, true) : sub(null, true, toElement, inclusive);
+    }
+    @Override
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        return descending ? sub(null, true, fromElement, inclusive) : sub(fromElement, inclusive, null, true);
+    }
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {return subSet(fromElement, true, toElement, false);}
+    @Override
+    public SortedSet<E> headSet(E toElement) {return headSet(toElement, false);}
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {return tailSet(fromElement, true);}
+    /**
+     * Crea la vista con la intersección de los límites de esta vista y de [from, to], en orden natural.
+     */
+    private AVLSet<E> sub(E from, boolean fromInclusive, E to, boolean toInclusive) {
+        if (from != null && to != null && from.compareTo(to) > 0) throw new IllegalArgumentException("El inicio del rango es mayor que el final");
+        E l = lo, h = hi;
+        boolean li = loInclusive, hiInc = hiInclusive;
+        if (from != null && (l == null || from.compareTo(l) > 0 || (from.compareTo(l) == 0 && !fromInclusive))) {
+            l = from;
+            li = fromInclusive;
+        }
+        if (to != null && (h == null || to.compareTo(h) < 0 || (to.compareTo(h) == 0 && !toInclusive))) {
+            h = to;
+            hiInc = toInclusive;
+        }
+        return new AVLSet<>(tree, l, li, h, hiInc, descending);
+    }
+    /**
+     * Clase interna privada que recorre la vista con un iterador de rango del AVL. Como borrar
+     * del árbol puede rotar los nodos que guarda la pila del iterador, remove borra el último
+     * elemento retornado y crea un iterador nuevo que empieza justo después de él.
+     */
+    private class CIterator implements Iterator<E> {
+        private final boolean down;
+        private Iterator<E> it;
+        private E last;
+
+        public CIterator(boolean down) {
+            this.down = down;
+            this.it = down ? tree.descendingRange(lo, loInclusive, hi, hiInclusive) : tree.range(lo, loInclusive, hi, hiInclusive);
+        }
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+        @Override
+        public E next() {
+            last = it.next();
+            return last;
+        }
+        @Override
+        public void remove() {
+            if (last == null) throw new IllegalStateException();
+            tree.delete(last);
+            it = down ? tree.descendingRange(lo, loInclusive, last, false) : tree.range(last, false, hi, hiInclusive);
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package eda.ds;
+
+import eda.adt.Dictionary;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+/**<h3>BPlusTree - Árbol B+ en memoria
+ * </h3>
+ * Diccionario ordenado en el que cada nodo guarda hasta order claves ordenadas en un array, en
+ * lugar de un único elemento como los nodos de AVL y BST. Con order entre 32 y 128 un árbol de
+ * 10M claves tiene 4 o 5 niveles en vez de los ~24 de un AVL, y dentro de cada nodo la búsqueda
+ * binaria recorre memoria contigua, así que una búsqueda toca muchas menos líneas de caché.
+ * Además, el coste de cabeceras y punteros se reparte entre todas las claves del nodo.
+ * <p>
+ * Los pares clave-valor solo están en las hojas. Los nodos internos guardan claves separadoras:
+ * el hijo i contiene las claves k con keys[i-1] <= k < keys[i]. Las hojas están enlazadas en
+ * orden, de modo que iterator y range recorren las claves saltando de hoja en hoja sin volver
+ * a subir por el árbol.
+ * <p>
+ * Se ofrecen tanto las operaciones de Dictionary (put, get, remove...) como las de AVL usado
+ * como conjunto (add, delete, search, min, max), para poder sustituir uno por otro.
+ * <p>
+ * Costes de los métodos (con B = order):
+ * <ul>
+ *     <li>put/add: O(log N), con O(B) para desplazar las claves dentro del nodo.</li>
+ *     <li>remove/delete: O(log N), con O(B) para desplazar, prestar o fusionar nodos.</li>
+ *     <li>get/search/contains: O(log N).</li>
+ *     <li>min/max: O(log_B N).</li>
+ *     <li>range: O(log N + k) para recorrer k claves.</li>
+ * </ul>
+ *
+ * @param <K> el tipo de las claves, que deben ser comparables
+ * @param <V> el tipo de los valores
+ * @author Marcos del Amo Fernández
+ * @version Práctica 2 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see AVL
+ * @see SortedTable
+ */
+public class BPlusTree<K extends Comparable<K>, V> implements Dictionary<K, V> {
+    private static final int DEFAULT_ORDER = 64;
+    private final int order;
+    private Node root;
+    private Leaf first;
+    private int size;
+    // Resultado de la última inserción recursiva: la clave y el nodo que hay que subir al padre
+    // si el hijo se ha dividido, y el valor sustituido si la clave ya existía.
+    private Object splitKey;
+    private Node splitNode;
+    private Object oldValue;
+
+    /**
+     * Constructor que crea un árbol vacío con el orden por defecto (64).
+     */
+    public BPlusTree() {this(DEFAULT_ORDER);}
+    /**
+     * Constructor que crea un árbol vacío con el orden indicado: el número máximo de claves
+     * de una hoja y de hijos de un nodo interno.
+     *
+     * @param order el orden del árbol; se recomienda entre 32 y 128
+     * @throws IllegalArgumentException si el orden es menor que 4
+     */
+    public BPlusTree(int order) {
+        if (order < 4) throw new IllegalArgumentException("El orden debe ser al menos 4");
+        this.order = order;
+        clear();
+    }
+    /**
+     * Clase base de los nodos: n claves ordenadas en keys[0..n).
+     */
+    private abstract static class Node {
+        final Object[] keys;
+        int n;
+
+        Node(int capacity) {keys = new Object[capacity];}
+    }
+    /**
+     * Hoja: cada clave va con su valor, y next apunta a la hoja siguiente en orden.
+     */
+    private static final class Leaf extends Node {
+        final Object[] values;
+        Leaf next;
+
+        // Una posición de más para insertar antes de dividir.
+        Leaf(int order) {
+            super(order + 1);
+            values = new Object[order + 1];
+        }
+    }
+    /**
+     * Nodo interno: n claves separadoras y n + 1 hijos.
+     */
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int order) {
+            super(order);
+            children = new Node[order + 1];
+        }
+    }
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>> int compare(K key, Object other) {
+        return key.compareTo((K) other);
+    }
+    /**
+     * Busca la clave en las n primeras claves del nodo.
+     *
+     * @return la posición de la clave si está, o -(posición de inserción) - 1 si no
+     */
+    private int indexOf(Node node, K key) {
+        int low = 0, high = node.n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(key, node.keys[mid]);
+            if (cmp > 0) low = mid + 1;
+            else if (cmp < 0) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+    /**
+     * Retorna el hijo de un nodo interno en el que debe estar la clave.
+     */
+    private int childIndex(Inner node, K key) {
+        int i = indexOf(node, key);
+        return (i >= 0) ? i + 1 : -(i + 1);
+    }
+    private Leaf findLeaf(K key) {
+        Node node = root;
+        while (node instanceof Inner inner) node = inner.children[childIndex(inner, key)];
+        return (Leaf) node;
+    }
+    private int minKeys(Node node) {
+        return (node instanceof Leaf) ? order / 2 : (order - 1) / 2;
+    }
+    /**
+     * Asocia el valor a la clave, sustituyendo el valor anterior si la clave ya existía.
+     *
+     * @param key la clave
+     * @param value el valor
+     * @return el valor anterior, o null si la clave no existía
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null) throw new NullPointerException();
+        oldValue = null;
+        if (insert(root, key, value)) size++;
+        if (splitNode != null) {
+            Inner newRoot = new Inner(order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.n = 1;
+            root = newRoot;
+            splitKey = null;
+            splitNode = null;
+        }
+        V old = (V) oldValue;
+        oldValue = null;
+        return old;
+    }
+    /**
+     * Inserta en el subárbol del nodo. Si el nodo se divide, deja en splitKey y splitNode la
+     * separadora y el nuevo hermano derecho para que el llamante los inserte en el padre.
+     *
+     * @return true si la clave no existía
+     */
+    private boolean insert(Node node, K key, V value) {
+        if (node instanceof Leaf leaf) {
+            int i = indexOf(leaf, key);
+            if (i >= 0) {
+                oldValue = leaf.values[i];
+                leaf.values[i] = value;
+                return false;
+            }
+            i = -(i + 1);
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.n - i);
+            System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.n - i);
+            leaf.keys[i] = key;
+            leaf.values[i] = value;
+            if (++leaf.n > order) splitLeaf(leaf);
+            return true;
+        }
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        boolean added = insert(inner.children[c], key, value);
+        if (splitNode != null) {
+            System.arraycopy(inner.keys, c, inner.keys, c + 1, inner.n - c);
+            System.arraycopy(inner.children, c + 1, inner.children, c + 2, inner.n - c);
+            inner.keys[c] = splitKey;
+            inner.children[c + 1] = splitNode;
+            splitKey = null;
+            splitNode = null;
+            if (++inner.n >= order) splitInner(inner);
+        }
+        return added;
+    }
+    private void splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(order);
+        int keep = leaf.n / 2;
+        right.n = leaf.n - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.n);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.n);
+        Arrays.fill(leaf.keys, keep, leaf.n, null);
+        Arrays.fill(leaf.values, keep, leaf.n, null);
+        leaf.n = keep;
+        right.next = leaf.next;
+        leaf.next = right;
+        splitKey = right.keys[0];
+        splitNode = right;
+    }
+    private void splitInner(Inner inner) {
+        Inner right = new Inner(order);
+        int mid = inner.n / 2;
+        right.n = inner.n - mid - 1;
+        System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.n);
+        System.arraycopy(inner.children, mid + 1, right.children, 0, right.n + 1);
+        splitKey = inner.keys[mid];
+        Arrays.fill(inner.keys, mid, inner.n, null);
+        Arrays.fill(inner.children, mid + 1, inner.n + 1, null);
+        inner.n = mid;
+        splitNode = right;
+    }
+    /**
+     * Obtiene el valor asociado a la clave.
+     *
+     * @param key la clave
+     * @return el valor asociado, o null si la clave no existe
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) return null;
+        Leaf leaf = findLeaf(key);
+        int i = indexOf(leaf, key);
+        return (i >= 0) ? (V) leaf.values[i] : null;
+    }
+    /**
+     * Elimina la clave y su valor.
+     *
+     * @param key la clave
+     * @return el valor que tenía asociado, o null si la clave no existía
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        if (key == null) return null;
+        oldValue = null;
+        if (delete(root, key)) size--;
+        if (root instanceof Inner inner && inner.n == 0) root = inner.children[0];
+        V old = (V) oldValue;
+        oldValue = null;
+        return old;
+    }
+    /**
+     * Borra la clave del subárbol del nodo y, al volver, repara el hijo si se ha quedado con
+     * menos claves del mínimo, pidiendo prestada una clave a un hermano o fusionándose con él.
+     *
+     * @return true si la clave existía
+     */
+    private boolean delete(Node node, K key) {
+        if (node instanceof Leaf leaf) {
+            int i = indexOf(leaf, key);
+            if (i < 0) return false;
+            oldValue = leaf.values[i];
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.n - i - 1);
+            System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.n - i - 1);
+            leaf.n--;
+            leaf.keys[leaf.n] = null;
+            leaf.values[leaf.n] = null;
+            return true;
+        }
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        if (!delete(inner.children[c], key)) return false;
+        if (inner.children[c].n < minKeys(inner.children[c])) fixChild(inner, c);
+        return true;
+    }
+    private void fixChild(Inner parent, int c) {
+        Node child = parent.children[c];
+        if (c > 0 && parent.children[c - 1].n > minKeys(child)) borrowFromLeft(parent, c);
+        else if (c < parent.n && parent.children[c + 1].n > minKeys(child)) borrowFromRight(parent, c);
+        else if (c > 0) merge(parent, c - 1);
+        else merge(parent, c);
+    }
+    private void borrowFromLeft(Inner parent, int c) {
+        Node child = parent.children[c], left = parent.children[c - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.n);
+        if (child instanceof Leaf leaf) {
+            Leaf from = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.n);
+            leaf.keys[0] = from.keys[from.n - 1];
+            leaf.values[0] = from.values[from.n - 1];
+            from.keys[from.n - 1] = null;
+            from.values[from.n - 1] = null;
+            parent.keys[c - 1] = leaf.keys[0];
+        } else {
+            Inner in = (Inner) child, from = (Inner) left;
+            System.arraycopy(in.children, 0, in.children, 1, in.n + 1);
+            in.keys[0] = parent.keys[c - 1];
+            in.children[0] = from.children[from.n];
+            parent.keys[c - 1] = from.keys[from.n - 1];
+            from.keys[from.n - 1] = null;
+            from.children[from.n] = null;
+        }
+        left.n--;
+        child.n++;
+    }
+    private void borrowFromRight(Inner parent, int c) {
+        Node child = parent.children[c], right = parent.children[c + 1];
+        if (child instanceof Leaf leaf) {
+            Leaf from = (Leaf) right;
+            leaf.keys[leaf.n] = from.keys[0];
+            leaf.values[leaf.n] = from.values[0];
+            System.arraycopy(from.keys, 1, from.keys, 0, from.n - 1);
+            System.arraycopy(from.values, 1, from.values, 0, from.n - 1);
+            from.keys[from.n - 1] = null;
+            from.values[from.n - 1] = null;
+            parent.keys[c] = from.keys[0];
+        } else {
+            Inner in = (Inner) child, from = (Inner) right;
+            in.keys[in.n] = parent.keys[c];
+            in.children[in.n + 1] = from.children[0];
+            parent.keys[c] = from.keys[0];
+            System.arraycopy(from.keys, 1, from.keys, 0, from.n - 1);
+            System.arraycopy(from.children, 1, from.children, 0, from.n);
+            from.keys[from.n - 1] = null;
+            from.children[from.n] = null;
+        }
+        right.n--;
+        child.n++;
+    }
+    /**
+     * Fusiona los hijos i e i + 1 del padre en el hijo i y quita la separadora entre ellos.
+     */
+    private void merge(Inner parent, int i) {
+        Node left = parent.children[i], right = parent.children[i + 1];
+        if (left instanceof Leaf leaf) {
+            Leaf from = (Leaf) right;
+            System.arraycopy(from.keys, 0, leaf.keys, leaf.n, from.n);
+            System.arraycopy(from.values, 0, leaf.values, leaf.n, from.n);
+            leaf.n += from.n;
+            leaf.next = from.next;
+        } else {
+            Inner in = (Inner) left, from = (Inner) right;
+            in.keys[in.n] = parent.keys[i];
+            System.arraycopy(from.keys, 0, in.keys, in.n + 1, from.n);
+            System.arraycopy(from.children, 0, in.children, in.n + 1, from.n + 1);
+            in.n += from.n + 1;
+        }
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.n - i - 1);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.n - i - 1);
+        parent.n--;
+        parent.keys[parent.n] = null;
+        parent.children[parent.n + 1] = null;
+    }
+    @Override
+    public boolean contains(K key) {
+        return key != null && indexOf(findLeaf(key), key) >= 0;
+    }
+    @Override
+    public int size() {
+        return size;
+    }
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    @Override
+    public void clear() {
+        first = new Leaf(order);
+        root = first;
+        size = 0;
+    }
+    /**
+     * Retorna el número de claves del árbol, como AVL.getSize().
+     *
+     * @return el número de claves del árbol
+     */
+    public int getSize() {return size;}
+    /**
+     * Agrega una clave sin valor asociado, como AVL.add. Si la clave ya existía no cambia nada.
+     *
+     * @param key la clave a agregar
+     */
+    public void add(K key) {
+        if (key == null) return;
+        if (!contains(key)) put(key, null);
+    }
+    /**
+     * Elimina una clave, como AVL.delete.
+     *
+     * @param key la clave a eliminar
+     */
+    public void delete(K key) {remove(key);}
+    /**
+     * Busca una clave en el árbol.
+     *
+     * @param key la clave a buscar
+     * @return la clave almacenada igual a key, o null si no se encuentra
+     */
+    @SuppressWarnings("unchecked")
+    public K search(K key) {
+        if (key == null) return null;
+        Leaf leaf = findLeaf(key);
+        int i = indexOf(leaf, key);
+        return (i >= 0) ? (K) leaf.keys[i] : null;
+    }
+    /**
+     * Retorna la menor clave del árbol.
+     *
+     * @return la menor clave, o null si el árbol está vacío
+     */
+    @SuppressWarnings("unchecked")
+    public K min() {
+        return (size == 0) ? null : (K) first.keys[0];
+    }
+    /**
+     * Retorna la mayor clave del árbol.
+     *
+     * @return la mayor clave, o null si el árbol está vacío
+     */
+    @SuppressWarnings("unchecked")
+    public K max() {
+        if (size == 0) return null;
+        Node node = root;
+        while (node instanceof Inner inner) node = inner.children[inner.n];
+        return (K) node.keys[node.n - 1];
+    }
+    /**
+     * Retorna un iterador sobre las claves en orden ascendente, recorriendo la lista de hojas.
+     *
+     * @return un iterador sobre las claves
+     */
+    @Override
+    public Iterator<K> iterator() {
+        return new CIterator(first, 0, null);
+    }
+    /**
+     * Retorna un iterador sobre las claves comprendidas entre lo y hi, ambas incluidas. Baja una
+     * vez hasta la hoja de lo y sigue por la lista de hojas hasta pasar de hi.
+     *
+     * @param lo el límite inferior
+     * @param hi el límite superior
+     * @return un iterador sobre las claves en [lo, hi]
+     */
+    public Iterator<K> range(K lo, K hi) {
+        Leaf leaf = findLeaf(lo);
+        int i = indexOf(leaf, lo);
+        return new CIterator(leaf, (i >= 0) ? i : -(i + 1), hi);
+    }
+    /**
+     * Retorna una representación en forma de cadena del árbol, con los pares en orden de clave.
+     *
+     * @return una representación en forma de cadena del árbol
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.n; i++) {
+                if (result.length() > 1) result.append(", ");
+                result.append(leaf.keys[i]).append("=").append(leaf.values[i]);
+            }
+        }
+        return result.append("}").toString();
+    }
+    /**
+     * Clase interna privada que recorre las hojas enlazadas desde una posición hasta una clave
+     * final opcional (incluida).
+     */
+    private class CIterator implements Iterator<K> {
+        private Leaf leaf;
+        private int index;
+        private final K hi;
+
+        public CIterator(Leaf leaf, int index, K hi) {
+            this.leaf = leaf;
+            this.index = index;
+            this.hi = hi;
+            skipEmpty();
+        }
+        private void skipEmpty() {
+            while (leaf != null && index >= leaf.n) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+        @Override
+        public boolean hasNext() {
+            return leaf != null && (hi == null || compare(hi, leaf.keys[index]) >= 0);
+        }
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = (K) leaf.keys[index++];
+            skipEmpty();
+            return key;
+        }
+    }
+}
@@ -21,6 +21,10 @@ import java.util.*;
  *     La búsqueda de un elemento requerirá recorrer el árbol desde la raíz hasta el nodo deseado.</li>
  *     <li>max/min: O(log N) en promedio, donde N es el tamaño actual del árbol.
  *     Encontrar el valor máximo o mínimo requiere recorrer el subárbol derecho o izquierdo, respectivamente.</li>
+ *     <li>floor/ceiling/lower/higher: O(log N) en promedio, con un único descenso desde la raíz.</li>
+ *     <li>range: O(log N + k) en promedio para recorrer los k elementos del rango.</li>
+ *     <li>fromSorted: O(N), construyendo directamente un árbol equilibrado.</li>
+ *     <li>merge: O(N + M), mezclando los dos recorridos en inorden y reconstruyendo el árbol equilibrado.</li>
  * </ul>
  * <p>
  * Complejidad espacial de todas las operaciones: O(1).
@@ -63,6 +67,8 @@ public class BST <E extends Comparable<E>> implements Iterable<E> {
     }
     private TreeNode<E> root;
     private int size;
+    // Último elemento tomado por fromSorted, para comprobar que la entrada está ordenada.
+    private E lastBuilt;
     /**
      * Constructor del árbol que inicializa la raíz como nula y el tamaño del árbol como 0.
      */
@@ -79,6 +85,75 @@ public class BST <E extends Comparable<E>> implements Iterable<E> {
         if (this.root == null) return;
         for (E val:this) this.size++;
     }
+    /**
+     * Construye un árbol perfectamente equilibrado a partir de un array ordenado, en O(N).
+     *
+     * @param sorted los elementos en orden ascendente
+     * @return el árbol con esos elementos
+     * @throws IllegalArgumentException si el array no está ordenado
+     */
+    public static <E extends Comparable<E>> BST<E> fromSorted(E[] sorted) {
+        return fromSorted(Arrays.asList(sorted).iterator(), sorted.length);
+    }
+    /**
+     * Construye un árbol perfectamente equilibrado con los n primeros elementos de un iterador
+     * ordenado, en O(N), creando los nodos de abajo arriba en inorden.
+     *
+     * @param sorted el iterador sobre los elementos en orden ascendente
+     * @param n el número de elementos a tomar del iterador
+     * @return el árbol con esos elementos
+     * @throws IllegalArgumentException si los elementos no están ordenados
+     * @throws NoSuchElementException si el iterador tiene menos de n elementos
+     */
+    public static <E extends Comparable<E>> BST<E> fromSorted(Iterator<? extends E> sorted, int n) {
+        BST<E> tree = new BST<>();
+        tree.root = tree.build(sorted, n);
+        tree.size = n;
+        tree.lastBuilt = null;
+        return tree;
+    }
+    /**
+     * Construye en inorden un subárbol equilibrado con los n siguientes elementos del iterador.
+     */
+    private TreeNode<E> build(Iterator<? extends E> sorted, int n) {
+        if (n == 0) return null;
+        int leftSize = n / 2;
+        TreeNode<E> left = build(sorted, leftSize);
+        E val = sorted.next();
+        if (val == null || (lastBuilt != null && lastBuilt.compareTo(val) > 0))
+            throw new IllegalArgumentException("Los elementos deben estar ordenados y no ser null");
+        lastBuilt = val;
+        return new TreeNode<>(val, left, build(sorted, n - leftSize - 1));
+    }
+    /**
+     * Mueve todos los elementos de otro árbol a este, dejando el otro vacío. Mezcla los dos
+     * recorridos en inorden y reconstruye un único árbol equilibrado, en O(N + M); como un BST no
+     * se mantiene equilibrado, reconstruirlo sale más a cuenta que unir por split y join.
+     * Los elementos se cuentan al mezclarlos en lugar de confiar en size, que delete decrementa
+     * aunque el elemento no esté, y el resultado deja size con el número real de elementos.
+     *
+     * @param other el árbol cuyos elementos se mueven a este
+     */
+    public void merge(BST<E> other) {
+        if (other == this || other.root == null) return;
+        ArrayList<E> merged = new ArrayList<>(Math.max(0, this.size) + Math.max(0, other.size));
+        Iterator<E> a = this.inorderIterator(), b = other.inorderIterator();
+        E x = a.hasNext() ? a.next() : null, y = b.next();
+        while (x != null || y != null) {
+            if (y == null || (x != null && x.compareTo(y) <= 0)) {
+                merged.add(x);
+                x = a.hasNext() ? a.next() : null;
+            } else {
+                merged.add(y);
+                y = b.hasNext() ? b.next() : null;
+            }
+        }
+        this.root = build(merged.iterator(), merged.size());
+        this.size = merged.size();
+        this.lastBuilt = null;
+        other.root = null;
+        other.size = 0;
+    }
     /**
      * Retorna el tamaño actual del árbol.
      *
@@ -164,6 +239,50 @@ public class BST <E extends Comparable<E>> implements Iterable<E> {
         }
         return null;
     }
+    /**
+     * Retorna el mayor elemento menor o igual que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el mayor elemento menor o igual que val, o null si no existe
+     */
+    public E floor(E val) {return bound(val, true, true);}
+    /**
+     * Retorna el mayor elemento estrictamente menor que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el mayor elemento menor que val, o null si no existe
+     */
+    public E lower(E val) {return bound(val, true, false);}
+    /**
+     * Retorna el menor elemento mayor o igual que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el menor elemento mayor o igual que val, o null si no existe
+     */
+    public E ceiling(E val) {return bound(val, false, true);}
+    /**
+     * Retorna el menor elemento estrictamente mayor que el valor dado.
+     *
+     * @param val el valor de referencia
+     * @return el menor elemento mayor que val, o null si no existe
+     */
+    public E higher(E val) {return bound(val, false, false);}
+    /**
+     * Desciende una sola vez desde la raíz quedándose con el último nodo que cumple la cota:
+     * por debajo de val si below es true, por encima en otro caso, incluyendo val si inclusive es true.
+     */
+    private E bound(E val, boolean below, boolean inclusive) {
+        TreeNode<E> node = this.root, best = null;
+        while (node != null) {
+            int cmp = node.val.compareTo(val);
+            boolean fits = below ? (cmp < 0 || (inclusive && cmp == 0)) : (cmp > 0 || (inclusive && cmp == 0));
+            if (fits) {
+                best = node;
+                node = below ? node.right : node.left;
+            } else node = below ? node.left : node.right;
+        }
+        return (best == null) ? null : best.val;
+    }
     /**
      * Retorna el nodo con el valor máximo en el árbol.
      *
@@ -238,6 +357,16 @@ public class BST <E extends Comparable<E>> implements Iterable<E> {
      * @return un iterador para recorrer el árbol en postorden
      */
     public Iterator<E> postorderIterator(){return new PostorderIterator<>(this.root);}
+    /**
+     * Retorna un iterador en inorden sobre los elementos comprendidos entre lo y hi, ambos incluidos.
+     * Desciende una sola vez hasta lo y avanza en orden hasta pasar de hi, así que recorrer k
+     * elementos cuesta O(h + k), siendo h la altura del árbol.
+     *
+     * @param lo el límite inferior
+     * @param hi el límite superior
+     * @return un iterador sobre los elementos en [lo, hi]
+     */
+    public Iterator<E> range(E lo, E hi) {return new RangeIterator<>(this.root, lo, hi);}
     /**
      * Retorna un iterador para recorrer el árbol por defecto, en este caso por niveles
      *
@@ -327,4 +456,35 @@ public class BST <E extends Comparable<E>> implements Iterable<E> {
             return node.val;
         }
     }
-}
\ No newline at end of file
+    /**
+     * Clase que implementa un iterador en inorden sobre un rango del árbol. Como InorderIterator,
+     * guarda en la pila el camino pendiente, pero al bajar descarta los nodos menores que lo, y
+     * termina en cuanto la cima de la pila es mayor que hi.
+     *
+     * @param <E> el tipo de elemento que contiene el árbol, el cual debe ser comparable
+     */
+    private static class RangeIterator<E extends Comparable<E>> implements Iterator<E> {
+        Deque<TreeNode<E>> stack = new ArrayDeque<>();
+        private final E lo, hi;
+        public RangeIterator(TreeNode<E> root, E lo, E hi) {
+            this.lo = lo;
+            this.hi = hi;
+            dive(root);
+        }
+        private void dive(TreeNode<E> node) {
+            while (node != null) {
+                if (node.val.compareTo(lo) >= 0) {
+                    stack.push(node);
+                    node = node.left;
+                } else node = node.right;
+            }
+        }
+        public boolean hasNext() {return !stack.isEmpty() && stack.peek().val.compareTo(hi) <= 0;}
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            TreeNode<E> node = stack.pop();
+            dive(node.right);
+            return node.val;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package eda.ds;
+import eda.adt.Dictionary;
+import java.util.Iterator;
+/**<h3>BoundedCache - Caché acotada por tamaño o peso con desalojo automático
+ * </h3>
+ * Implementación de Dictionary pensada para usarse como caché delante de una consulta lenta.
+ * Las entradas se indexan en una HashTable y, además, se enlazan en listas doblemente enlazadas
+ * intrusivas con nodos centinela head y tail, como en ListImpl, que guardan el orden de acceso.
+ * Cuando el peso total supera el máximo se desaloja según la política elegida:
+ * <ul>
+ *     <li>{@link Policy#LRU}: una sola lista; se desaloja la entrada usada hace más tiempo.</li>
+ *     <li>{@link Policy#W_TINY_LFU}: una ventana LRU pequeña (WINDOW_PERCENT del peso) seguida de
+ *     una zona principal segmentada en periodo de prueba y protegida. Cuando una entrada sale de la
+ *     ventana, compite con la víctima del periodo de prueba y sobrevive la de mayor frecuencia
+ *     estimada por un count-min sketch, cuyos contadores se dividen a la mitad periódicamente para
+ *     olvidar la historia antigua. Resiste mucho mejor que LRU los recorridos de una sola pasada.</li>
+ * </ul>
+ * Por defecto cada entrada pesa 1, de modo que el máximo es un número de entradas; con un
+ * {@link Weigher} puede acotarse, por ejemplo, por bytes. Opcionalmente las entradas caducan un
+ * tiempo fijo después de escribirse (expire-after-write); las caducadas se eliminan al consultarlas
+ * o al desalojar. Se cuentan aciertos, fallos y desalojos para poder observar la tasa de aciertos.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(1) en promedio, más el desalojo de las entradas que sobren.</li>
+ *     <li>get: O(1) en promedio.</li>
+ *     <li>remove: O(1) en promedio.</li>
+ *     <li>contains: O(1) en promedio; no cuenta como acceso.</li>
+ *     <li>size: O(1); puede incluir entradas caducadas aún no eliminadas.</li>
+ *     <li>isEmpty: O(1).</li>
+ *     <li>clear: O(1).</li>
+ *     <li>iterator: O(n), donde n es la capacidad de la tabla hash.</li>
+ * </ul>
+ *
+ * @param <K> el tipo de las claves almacenadas en la caché
+ * @param <V> el tipo de los valores asociados a las claves en la caché
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see Dictionary
+ * @see HashTable
+ * @see ListImpl
+ */
+public class BoundedCache<K, V> implements Dictionary<K, V> {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    private static final byte WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+    private final HashTable<K, Node<K, V>> table = new HashTable<>();
+    private final Policy policy;
+    private final Weigher<? super K, ? super V> weigher;
+    private final long maximumWeight;
+    private final long expireAfterWriteNanos;
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedQueue = new AccessOrder<>();
+    private final FrequencySketch sketch;
+    private final long windowMaximum, protectedMaximum;
+    private long hits, misses, evictions;
+    /**
+     * Constructor de una caché acotada por peso, con caducidad opcional.
+     *
+     * @param maximumWeight el peso total máximo de las entradas
+     * @param policy la política de desalojo
+     * @param weigher la función que calcula el peso de cada entrada
+     * @param expireAfterWriteMillis milisegundos que vive una entrada desde que se escribe, o 0 para no caducar
+     * @throws IllegalArgumentException si el peso máximo no es positivo o la caducidad es negativa
+     */
+    public BoundedCache(long maximumWeight, Policy policy, Weigher<? super K, ? super V> weigher, long expireAfterWriteMillis){
+        if (maximumWeight <= 0) throw new IllegalArgumentException("maximumWeight debe ser positivo");
+        if (expireAfterWriteMillis < 0) throw new IllegalArgumentException("expireAfterWriteMillis no puede ser negativo");
+        this.maximumWeight = maximumWeight;
+        this.policy = policy;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWriteMillis * 1_000_000L;
+        this.windowMaximum = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * PROTECTED_PERCENT / 100;
+        this.sketch = (policy == Policy.W_TINY_LFU) ? new FrequencySketch() : null;
+    }
+    /**
+     * Constructor de una caché acotada por número de entradas, sin caducidad.
+     *
+     * @param capacity el número máximo de entradas
+     * @param policy la política de desalojo
+     */
+    public BoundedCache(long capacity, Policy policy){
+        this(capacity, policy, (key, value) -> 1, 0);
+    }
+    /**
+     * Política de desalojo de la caché.
+     */
+    public enum Policy {LRU, W_TINY_LFU}
+    /**
+     * Función que calcula el peso de una entrada. Debe ser positivo y no cambiar mientras
+     * la entrada esté en la caché.
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        int weigh(K key, V value);
+    }
+    /**
+     * Clase que representa una entrada de la caché, enlazada en la lista de su zona.
+     */
+    private static class Node<K, V> {
+        final K key;
+        V value;
+        int weight;
+        long writeTime;
+        byte queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+        Node(K key, V value) {this.key = key; this.value = value;}
+    }
+    /**
+     * Lista doblemente enlazada intrusiva con nodos centinela head y tail, ordenada del
+     * acceso más reciente (tras head) al más antiguo (antes de tail). Lleva la cuenta del
+     * peso de sus nodos.
+     */
+    private static class AccessOrder<K, V> {
+        final Node<K, V> head = new Node<>(null, null), tail = new Node<>(null, null);
+        long weight;
+        AccessOrder() {
+            head.next = tail;
+            tail.prev = head;
+        }
+        void addFirst(Node<K, V> node) {
+            node.prev = head;
+            node.next = head.next;
+            head.next.prev = node;
+            head.next = node;
+            weight += node.weight;
+        }
+        void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node.next = null;
+            weight -= node.weight;
+        }
+        void moveToFront(Node<K, V> node) {
+            unlink(node);
+            addFirst(node);
+        }
+        Node<K, V> first() {return head.next == tail ? null : head.next;}
+        Node<K, V> last() {return tail.prev == head ? null : tail.prev;}
+        void clear() {
+            head.next = tail;
+            tail.prev = head;
+            weight = 0;
+        }
+    }
+    /**
+     * Count-min sketch de cuatro filas con contadores de 4 bits (saturados en 15) empaquetados de
+     * dieciséis en dieciséis en un long[]. Cada fila tiene width contadores, con width la potencia
+     * de dos inmediatamente superior al número de entradas de la caché: se dimensiona por entradas
+     * y no por peso, y crece con ensureCapacity a medida que la caché se llena (olvidando las
+     * frecuencias acumuladas, como un reinicio). Ocupa width / 2 bytes por fila. Tras sampleSize
+     * incrementos todos los contadores se dividen entre dos, de modo que la frecuencia estimada
+     * refleja el uso reciente.
+     */
+    private static class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb1c9d4e3, 0x7a3e1f2d, 0x5bd1e995};
+        private static final int MAX_WIDTH = 1 << 24;
+        private long[] table;
+        private int width;
+        private long sampleSize;
+        private long additions;
+        FrequencySketch() {
+            resize(16);
+        }
+        /**
+         * Amplía el sketch si la caché tiene más entradas que contadores por fila.
+         */
+        void ensureCapacity(int entries) {
+            if (entries > width && width < MAX_WIDTH) resize(Math.min(MAX_WIDTH, Integer.highestOneBit(entries - 1) << 1));
+        }
+        private void resize(int newWidth) {
+            width = newWidth;
+            table = new long[SEEDS.length * width / 16];
+            sampleSize = 10L * width;
+            additions = 0;
+        }
+        /**
+         * Posición global del contador de la clave en la fila: cada fila remezcla por completo
+         * el hash con su semilla (fmix32 de MurmurHash3), así que las filas son independientes.
+         */
+        private int index(int hash, int row) {
+            int h = hash ^ SEEDS[row];
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return row * width + (h & (width - 1));
+        }
+        private int get(int i) {return (int) (table[i >>> 4] >>> ((i & 15) << 2)) & 15;}
+        void increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < SEEDS.length; row++) {
+                int i = index(hash, row);
+                if (get(i) < 15) table[i >>> 4] += 1L << ((i & 15) << 2);
+            }
+            if (++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+                additions /= 2;
+            }
+        }
+        int frequency(Object key) {
+            int hash = key.hashCode(), min = 15;
+            for (int row = 0; row < SEEDS.length; row++) min = Math.min(min, get(index(hash, row)));
+            return min;
+        }
+    }
+    /**
+     * Retorna la lista que corresponde a la zona del nodo.
+     */
+    private AccessOrder<K, V> queueOf(Node<K, V> node){
+        if (node.queue == PROBATION) return probation;
+        if (node.queue == PROTECTED) return protectedQueue;
+        return window;
+    }
+    /**
+     * Verifica si la entrada ha superado su tiempo de vida.
+     */
+    private boolean isExpired(Node<K, V> node){
+        return expireAfterWriteNanos > 0 && System.nanoTime() - node.writeTime >= expireAfterWriteNanos;
+    }
+    /**
+     * Retorna el peso total de las entradas de la caché.
+     *
+     * @return la suma de los pesos de las entradas
+     */
+    public long weightedSize(){
+        return window.weight + probation.weight + protectedQueue.weight;
+    }
+    /**
+     * Agrega un par clave-valor a la caché y desaloja las entradas que sobren.
+     *
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     * @return el valor anterior asociado a la clave, o null si la clave no estaba presente
+     */
+    public V put(K key, V value) {
+        if (sketch != null) sketch.increment(key);
+        Node<K, V> node = table.get(key);
+        V result = null;
+        if (node != null) {
+            result = isExpired(node) ? null : node.value;
+            AccessOrder<K, V> queue = queueOf(node);
+            queue.unlink(node);
+            node.value = value;
+            node.weight = weigher.weigh(key, value);
+            node.writeTime = System.nanoTime();
+            queue.addFirst(node);
+            onAccess(node);
+        } else {
+            node = new Node<>(key, value);
+            node.weight = weigher.weigh(key, value);
+            node.writeTime = System.nanoTime();
+            table.put(key, node);
+            window.addFirst(node);
+            if (sketch != null) sketch.ensureCapacity(table.size());
+        }
+        evict();
+        return result;
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada y lo registra como acceso.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @return el valor asociado a la clave especificada, o null si no está o ha caducado
+     */
+    public V get(K key) {
+        if (sketch != null) sketch.increment(key);
+        Node<K, V> node = table.get(key);
+        if (node != null && isExpired(node)) {
+            evict(node);
+            node = null;
+        }
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onAccess(node);
+        return node.value;
+    }
+    /**
+     * Reordena las listas tras un acceso. En LRU y en la ventana el nodo pasa al frente; un acierto
+     * en periodo de prueba promociona el nodo a la zona protegida, que a su vez degrada sus nodos
+     * más antiguos si se desborda.
+     *
+     * @param node el nodo accedido
+     */
+    private void onAccess(Node<K, V> node){
+        if (node.queue == WINDOW) {
+            window.moveToFront(node);
+        } else if (node.queue == PROTECTED) {
+            protectedQueue.moveToFront(node);
+        } else {
+            probation.unlink(node);
+            node.queue = PROTECTED;
+            protectedQueue.addFirst(node);
+            while (protectedQueue.weight > protectedMaximum && protectedQueue.first() != protectedQueue.last()) {
+                Node<K, V> demoted = protectedQueue.last();
+                protectedQueue.unlink(demoted);
+                demoted.queue = PROBATION;
+                probation.addFirst(demoted);
+            }
+        }
+    }
+    /**
+     * Desaloja entradas hasta que el peso total no supere el máximo.
+     */
+    private void evict(){
+        if (policy == Policy.LRU) {
+            while (weightedSize() > maximumWeight) evict(window.last());
+            return;
+        }
+        while (window.weight > windowMaximum && window.first() != window.last()) {
+            Node<K, V> candidate = window.last();
+            window.unlink(candidate);
+            candidate.queue = PROBATION;
+            probation.addFirst(candidate);
+            if (weightedSize() > maximumWeight) admit(candidate);
+        }
+        while (weightedSize() > maximumWeight) {
+            Node<K, V> victim = probation.last();
+            if (victim == null) victim = protectedQueue.last();
+            if (victim == null) victim = window.last();
+            evict(victim);
+        }
+    }
+    /**
+     * Decide entre el candidato que sale de la ventana y la víctima del periodo de prueba:
+     * se desaloja el de menor frecuencia estimada y, en caso de empate, el candidato. Las
+     * entradas caducadas se desalojan siempre primero.
+     *
+     * @param candidate el nodo que acaba de salir de la ventana
+     */
+    private void admit(Node<K, V> candidate){
+        Node<K, V> victim = probation.last();
+        if (victim == candidate || isExpired(candidate)) evict(candidate);
+        else if (isExpired(victim)) evict(victim);
+        else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) evict(victim);
+        else evict(candidate);
+    }
+    /**
+     * Elimina el nodo de su lista y de la tabla, contándolo como desalojo.
+     *
+     * @param node el nodo a desalojar
+     */
+    private void evict(Node<K, V> node){
+        queueOf(node).unlink(node);
+        table.remove(node.key);
+        evictions++;
+    }
+    /**
+     * Elimina la entrada correspondiente a la clave especificada de la caché.
+     *
+     * @param key la clave de la entrada que se desea eliminar
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra
+     */
+    public V remove(K key) {
+        Node<K, V> node = table.remove(key);
+        if (node == null) return null;
+        queueOf(node).unlink(node);
+        return isExpired(node) ? null : node.value;
+    }
+    /**
+     * Verifica si la caché contiene una entrada vigente con la clave especificada.
+     * No cuenta como acierto ni como fallo.
+     *
+     * @param key la clave cuya presencia se desea verificar
+     * @return true si la caché contiene una entrada no caducada con la clave, false de lo contrario
+     */
+    public boolean contains(K key) {
+        Node<K, V> node = table.get(key);
+        return node != null && !isExpired(node);
+    }
+    /**
+     * Retorna el número de entradas en la caché.
+     *
+     * @return el número de entradas en la caché
+     */
+    public int size(){
+        return table.size();
+    }
+    /**
+     * Verifica si la caché está vacía.
+     *
+     * @return true si la caché está vacía, false de lo contrario
+     */
+    public boolean isEmpty(){
+        return table.isEmpty();
+    }
+    /**
+     * Elimina todas las entradas de la caché. Los contadores no se reinician.
+     */
+    public void clear(){
+        table.clear();
+        window.clear();
+        probation.clear();
+        protectedQueue.clear();
+    }
+    /**
+     * Retorna un iterador sobre las claves en la caché.
+     *
+     * @return un iterador sobre las claves en la caché
+     */
+    public Iterator<K> iterator(){
+        return table.iterator();
+    }
+    /**
+     * Retorna el número de consultas con get que encontraron la clave.
+     *
+     * @return el número de aciertos
+     */
+    public long hitCount() {return hits;}
+    /**
+     * Retorna el número de consultas con get que no encontraron la clave.
+     *
+     * @return el número de fallos
+     */
+    public long missCount() {return misses;}
+    /**
+     * Retorna el número de entradas desalojadas por falta de espacio o por caducidad.
+     *
+     * @return el número de desalojos
+     */
+    public long evictionCount() {return evictions;}
+    /**
+     * Retorna la proporción de consultas que fueron aciertos.
+     *
+     * @return la tasa de aciertos, entre 0 y 1, o 1 si no ha habido consultas
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return (requests == 0) ? 1.0 : (double) hits / requests;
+    }
+    /**
+     * Retorna una representación de cadena de la caché con sus contadores.
+     *
+     * @return una cadena que representa la caché
+     */
+    public String toString() {
+        return "BoundedCache[" + policy + ", peso=" + weightedSize() + "/" + maximumWeight
+                + ", aciertos=" + hits + ", fallos=" + misses + ", desalojos=" + evictions + "]";
+    }
+}
@@ -0,0 +1,439 @@
+package eda.ds;
+import eda.adt.Dictionary;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+/**<h3>ConcurrentHashTable - Tabla hash encadenada segura para varios hilos
+ * </h3>
+ * Implementación de Dictionary que admite put, get y remove concurrentes sin un cerrojo global.
+ * Las cubetas se guardan en un AtomicReferenceArray y las cadenas usan campos volatile, así que:
+ * <ul>
+ *     <li>get y contains no bloquean nunca: leen la cabeza de la cubeta y recorren la cadena.</li>
+ *     <li>Una inserción en una cubeta vacía se publica con un CAS sobre la cubeta; el resto de
+ *     escrituras bloquean únicamente el primer nodo de su cubeta, de modo que hilos que escriben
+ *     en cubetas distintas no compiten entre sí.</li>
+ *     <li>El rehashing es cooperativo: el hilo que supera el umbral reserva la nueva tabla y los
+ *     hilos que escriben mientras tanto reclaman tramos de TRANSFER_STRIDE cubetas y ayudan a
+ *     trasladarlos. Cada cubeta trasladada se sustituye por un ForwardingNode que redirige a
+ *     la nueva tabla a lectores y escritores.</li>
+ * </ul>
+ * El iterador es débilmente consistente: nunca lanza ConcurrentModificationException, devuelve
+ * cada clave presente durante todo el recorrido exactamente una vez y puede reflejar, o no, los
+ * cambios hechos mientras tanto. Ni las claves ni los valores pueden ser null.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(1) en promedio; el hilo que dispara el rehashing traslada como mucho la tabla entera.</li>
+ *     <li>get: O(1) en promedio, sin bloqueo.</li>
+ *     <li>remove: O(1) en promedio.</li>
+ *     <li>contains: O(1) en promedio, sin bloqueo.</li>
+ *     <li>size: O(c), donde c es el número de celdas del contador (LongAdder).</li>
+ *     <li>isEmpty: O(c).</li>
+ *     <li>clear: O(n), donde n es la capacidad de la tabla.</li>
+ *     <li>iterator: O(n), donde n es la capacidad de la tabla.</li>
+ * </ul>
+ *
+ * @param <K> el tipo de las claves almacenadas en la tabla hash
+ * @param <V> el tipo de los valores asociados a las claves en la tabla hash
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see Dictionary
+ * @see HashTable
+ */
+public class ConcurrentHashTable<K, V> implements Dictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int TRANSFER_STRIDE = 16;
+    private static final int MOVED = -1;
+    private volatile AtomicReferenceArray<TableEntry<K, V>> table;
+    private final AtomicReference<Resize<K, V>> resizing = new AtomicReference<>();
+    private final LongAdder n = new LongAdder();
+    public ConcurrentHashTable(int capacity){
+        table = new AtomicReferenceArray<>(tableSizeFor(capacity));
+    }
+    public ConcurrentHashTable(){
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Clase interna que representa una entrada en la tabla hash.
+     * El valor y el enlace son volatile para que los lectores sin bloqueo vean escrituras completas.
+     */
+    private static class TableEntry<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile TableEntry<K, V> next;
+        TableEntry(int hash, K key, V value, TableEntry<K, V> next){
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+    /**
+     * Entrada que ocupa una cubeta ya trasladada y redirige a la tabla nueva.
+     */
+    private static final class ForwardingNode<K, V> extends TableEntry<K, V> {
+        final AtomicReferenceArray<TableEntry<K, V>> nextTable;
+        ForwardingNode(AtomicReferenceArray<TableEntry<K, V>> nextTable){
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+    /**
+     * Estado de un rehashing en curso, compartido por todos los hilos que colaboran en él.
+     */
+    private static final class Resize<K, V> {
+        final AtomicReferenceArray<TableEntry<K, V>> oldTable;
+        final AtomicReferenceArray<TableEntry<K, V>> nextTable;
+        final ForwardingNode<K, V> forward;
+        final AtomicInteger transferIndex;
+        final AtomicInteger transferred = new AtomicInteger();
+        Resize(AtomicReferenceArray<TableEntry<K, V>> oldTable){
+            this.oldTable = oldTable;
+            this.nextTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+            this.forward = new ForwardingNode<>(nextTable);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+        }
+    }
+    /**
+     * Clase interna que implementa el iterador débilmente consistente para la tabla hash.
+     * Recorre las cubetas de la tabla vigente al crearse; si encuentra una cubeta trasladada,
+     * apila las dos cubetas de la tabla nueva en las que se ha repartido.
+     */
+    private class CIterator implements Iterator<K> {
+        private final AtomicReferenceArray<TableEntry<K, V>> base;
+        private final Deque<Object[]> forwarded = new ArrayDeque<>();
+        private TableEntry<K, V> current;
+        private int table_index;
+
+        public CIterator() {
+            this.base = table;
+            this.table_index = -1;
+            advance();
+        }
+        /**
+         * Avanza al siguiente elemento en la tabla hash.
+         */
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            current = (current == null) ? null : current.next;
+            while (current == null) {
+                AtomicReferenceArray<TableEntry<K, V>> tab;
+                int index;
+                if (!forwarded.isEmpty()) {
+                    Object[] bin = forwarded.pop();
+                    tab = (AtomicReferenceArray<TableEntry<K, V>>) bin[0];
+                    index = (Integer) bin[1];
+                } else if (++table_index < base.length()) {
+                    tab = base;
+                    index = table_index;
+                } else return;
+                TableEntry<K, V> entry = tab.get(index);
+                if (entry instanceof ForwardingNode) {
+                    AtomicReferenceArray<TableEntry<K, V>> next = ((ForwardingNode<K, V>) entry).nextTable;
+                    forwarded.push(new Object[]{next, index + tab.length()});
+                    forwarded.push(new Object[]{next, index});
+                } else current = entry;
+            }
+        }
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = current.key;
+            advance();
+            return key;
+        }
+    }
+    /**
+     * Obtiene sin bloqueo la entrada correspondiente a la clave especificada,
+     * siguiendo los ForwardingNode si la cubeta ya se ha trasladado.
+     *
+     * @param key la clave de la entrada que se desea obtener
+     * @return la entrada correspondiente a la clave especificada, o null si no se encuentra
+     */
+    private TableEntry<K, V> getEntry(K key){
+        int h = hash(key);
+        AtomicReferenceArray<TableEntry<K, V>> tab = table;
+        TableEntry<K, V> entry = tab.get(h & (tab.length() - 1));
+        while (entry != null) {
+            if (entry instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) entry).nextTable;
+                entry = tab.get(h & (tab.length() - 1));
+                continue;
+            }
+            if (entry.hash == h && entry.key.equals(key)) return entry;
+            entry = entry.next;
+        }
+        return null;
+    }
+    /**
+     * Agrega un par clave-valor a la tabla hash.
+     *
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     * @return el valor anterior asociado a la clave, o null si la clave no estaba presente
+     * @throws NullPointerException si el valor es null
+     */
+    public V put(K key, V value) {
+        if (value == null) throw new NullPointerException();
+        int h = hash(key);
+        AtomicReferenceArray<TableEntry<K, V>> tab = table;
+        while (true) {
+            int index = h & (tab.length() - 1);
+            TableEntry<K, V> first = tab.get(index);
+            if (first == null) {
+                if (tab.compareAndSet(index, null, new TableEntry<>(h, key, value, null))) break;
+            } else if (first instanceof ForwardingNode) {
+                tab = helpTransfer(((ForwardingNode<K, V>) first).nextTable);
+            } else {
+                synchronized (first) {
+                    if (tab.get(index) != first) continue;
+                    TableEntry<K, V> entry = first;
+                    while (true) {
+                        if (entry.hash == h && entry.key.equals(key)) {
+                            V result = entry.value;
+                            entry.value = value;
+                            return result;
+                        }
+                        if (entry.next == null) break;
+                        entry = entry.next;
+                    }
+                    entry.next = new TableEntry<>(h, key, value, null);
+                }
+                break;
+            }
+        }
+        n.increment();
+        if (n.sum() > LOAD_FACTOR * tab.length()) resize(tab);
+        return null;
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada en la tabla hash, sin bloqueo.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    public V get(K key) {
+        TableEntry<K, V> entry = getEntry(key);
+        if (entry == null) return null;
+        else return entry.value;
+    }
+    /**
+     * Elimina la entrada correspondiente a la clave especificada de la tabla hash.
+     *
+     * @param key la clave de la entrada que se desea eliminar
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    public V remove(K key) {
+        int h = hash(key);
+        AtomicReferenceArray<TableEntry<K, V>> tab = table;
+        while (true) {
+            int index = h & (tab.length() - 1);
+            TableEntry<K, V> first = tab.get(index);
+            if (first == null) return null;
+            if (first instanceof ForwardingNode) {
+                tab = helpTransfer(((ForwardingNode<K, V>) first).nextTable);
+                continue;
+            }
+            synchronized (first) {
+                if (tab.get(index) != first) continue;
+                TableEntry<K, V> prev = null, entry = first;
+                while (entry != null && !(entry.hash == h && entry.key.equals(key))) {
+                    prev = entry;
+                    entry = entry.next;
+                }
+                if (entry == null) return null;
+                if (prev == null) tab.set(index, entry.next);
+                else prev.next = entry.next;
+                n.decrement();
+                return entry.value;
+            }
+        }
+    }
+    /**
+     * Verifica si la tabla hash contiene una entrada con la clave especificada.
+     *
+     * @param key la clave cuya presencia se desea verificar en la tabla
+     * @return true si la tabla contiene una entrada con la clave especificada, false de lo contrario
+     */
+    public boolean contains(K key) {
+        return getEntry(key) != null;
+    }
+    /**
+     * Retorna el número de entradas en la tabla hash. Con escrituras concurrentes
+     * el resultado es solo una estimación.
+     *
+     * @return el número de entradas en la tabla hash
+     */
+    public int size(){
+        long size = n.sum();
+        return (size < 0) ? 0 : (int) Math.min(size, Integer.MAX_VALUE);
+    }
+    /**
+     * Verifica si la tabla hash está vacía.
+     *
+     * @return true si la tabla hash está vacía, false de lo contrario
+     */
+    public boolean isEmpty(){
+        return n.sum() <= 0;
+    }
+    /**
+     * Elimina todas las entradas de la tabla hash, vaciando las cubetas una a una.
+     */
+    public void clear(){
+        AtomicReferenceArray<TableEntry<K, V>> tab = table;
+        int index = 0;
+        while (index < tab.length()) {
+            TableEntry<K, V> first = tab.get(index);
+            if (first == null) index++;
+            else if (first instanceof ForwardingNode) {
+                tab = helpTransfer(((ForwardingNode<K, V>) first).nextTable);
+                index = 0;
+            } else {
+                synchronized (first) {
+                    if (tab.get(index) != first) continue;
+                    long removed = 0;
+                    for (TableEntry<K, V> entry = first; entry != null; entry = entry.next) removed++;
+                    tab.set(index, null);
+                    n.add(-removed);
+                }
+                index++;
+            }
+        }
+    }
+    /**
+     * Retorna un iterador débilmente consistente sobre las claves en la tabla hash.
+     *
+     * @return un iterador sobre las claves en la tabla hash
+     */
+    public Iterator<K> iterator(){
+        return new CIterator();
+    }
+    /**
+     * Retorna una representación de cadena de la tabla hash.
+     *
+     * @return una cadena que representa la tabla hash
+     */
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (K key : this) {
+            if (result.length() > 1) result.append(", ");
+            result.append("(").append(key).append(":").append(get(key)).append(")");
+        }
+        return result.append("]").toString();
+    }
+    /**
+     * Calcula el código hash dispersado y no negativo de la clave, de modo que nunca
+     * coincida con el de un ForwardingNode.
+     *
+     * @param key la clave para la cual se calculará el código hash
+     * @return el código hash dispersado
+     */
+    private static int hash(Object key){
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & 0x7fffffff;
+    }
+    /**
+     * Retorna la menor potencia de dos mayor o igual que la capacidad pedida.
+     *
+     * @param capacity la capacidad pedida
+     * @return la capacidad real de la tabla
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= 1) return 2;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+    /**
+     * Inicia el rehashing de la tabla indicada si sigue siendo la vigente y nadie lo ha iniciado ya,
+     * y colabora en el traslado.
+     *
+     * @param tab la tabla que ha superado el factor de carga
+     */
+    private void resize(AtomicReferenceArray<TableEntry<K, V>> tab){
+        Resize<K, V> current = resizing.get();
+        if (current == null) {
+            if (table != tab) return;
+            Resize<K, V> started = new Resize<>(tab);
+            if (!resizing.compareAndSet(null, started)) return;
+            if (table != tab) {
+                resizing.set(null);
+                return;
+            }
+            current = started;
+        }
+        transfer(current);
+    }
+    /**
+     * Colabora en el rehashing que publica la tabla indicada, si sigue en curso.
+     *
+     * @param nextTable la tabla destino a la que redirigía el ForwardingNode encontrado
+     * @return la tabla en la que reintentar la operación
+     */
+    private AtomicReferenceArray<TableEntry<K, V>> helpTransfer(AtomicReferenceArray<TableEntry<K, V>> nextTable){
+        Resize<K, V> current = resizing.get();
+        if (current != null && current.nextTable == nextTable) transfer(current);
+        return nextTable;
+    }
+    /**
+     * Reclama tramos de cubetas de la tabla antigua y los traslada a la nueva hasta que no queden tramos.
+     * El hilo que completa el último tramo publica la nueva tabla.
+     *
+     * @param r el rehashing en curso
+     */
+    private void transfer(Resize<K, V> r){
+        int length = r.oldTable.length();
+        while (true) {
+            int hi = r.transferIndex.get();
+            if (hi <= 0) return;
+            int lo = Math.max(0, hi - TRANSFER_STRIDE);
+            if (!r.transferIndex.compareAndSet(hi, lo)) continue;
+            for (int i = lo; i < hi; i++) transferBucket(r, i);
+            if (r.transferred.addAndGet(hi - lo) == length) {
+                table = r.nextTable;
+                resizing.set(null);
+                return;
+            }
+        }
+    }
+    /**
+     * Reparte la cubeta indicada de la tabla antigua entre las cubetas i e i + length de la nueva
+     * y deja en su lugar un ForwardingNode. Las entradas se copian para que los lectores que estén
+     * recorriendo la cadena antigua puedan terminarla.
+     *
+     * @param r el rehashing en curso
+     * @param i el índice de la cubeta a trasladar
+     */
+    private void transferBucket(Resize<K, V> r, int i){
+        int length = r.oldTable.length();
+        while (true) {
+            TableEntry<K, V> first = r.oldTable.get(i);
+            if (first == null) {
+                if (r.oldTable.compareAndSet(i, null, r.forward)) return;
+                continue;
+            }
+            synchronized (first) {
+                if (r.oldTable.get(i) != first) continue;
+                TableEntry<K, V> low = null, high = null;
+                for (TableEntry<K, V> entry = first; entry != null; entry = entry.next) {
+                    if ((entry.hash & length) == 0) low = new TableEntry<>(entry.hash, entry.key, entry.value, low);
+                    else high = new TableEntry<>(entry.hash, entry.key, entry.value, high);
+                }
+                r.nextTable.set(i, low);
+                r.nextTable.set(i + length, high);
+                r.oldTable.set(i, r.forward);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package eda.ds;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+/**<h3>ConcurrentQueue - Cola enlazada sin bloqueo (Michael-Scott)
+ * </h3>
+ * Cola FIFO segura para varios productores y consumidores que no usa cerrojos. Sigue el diseño
+ * de nodos de ListImpl (un nodo centinela delante del primer elemento) pero con enlaces simples
+ * volatile que se modifican con CAS, según el algoritmo de Michael y Scott:
+ * <ul>
+ *     <li>offer enlaza el nodo nuevo detrás del último con un CAS sobre su next y después intenta
+ *     adelantar tail. Si encuentra tail retrasado (otro hilo ha enlazado pero aún no lo ha
+ *     adelantado), lo adelanta él antes de reintentar, así que ningún hilo espera a otro.</li>
+ *     <li>poll adelanta head al primer nodo con un CAS; ese nodo pasa a ser el nuevo centinela y
+ *     su dato se borra para no retenerlo.</li>
+ * </ul>
+ * Un hilo solo repite su operación cuando otro ha completado la suya, por lo que la cola
+ * progresa siempre aunque algún hilo se detenga a mitad de una operación.
+ * <p>
+ * El iterador recorre los elementos en orden FIFO, igual que el de ListImpl. Es débilmente
+ * consistente: nunca lanza ConcurrentModificationException y devuelve los elementos presentes
+ * durante todo el recorrido, reflejando o no los que se añadan o extraigan mientras tanto.
+ * No se admiten elementos null, porque poll() y peek() usan null para indicar que la cola está vacía.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>offer: O(1), sin bloqueo.</li>
+ *     <li>poll: O(1), sin bloqueo.</li>
+ *     <li>peek: O(1), sin bloqueo.</li>
+ *     <li>size: O(c), donde c es el número de celdas del contador (LongAdder); el valor es
+ *     exacto solo si no hay operaciones en curso.</li>
+ *     <li>iterator: O(n).</li>
+ * </ul>
+ *
+ * @param <E> el tipo de elementos que se almacenan en la cola
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 1 - Estructuras de Datos y Algoritmos
+ * @see ListImpl
+ * @see ConcurrentHashTable
+ */
+public class ConcurrentQueue<E> implements Iterable<E> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentQueue, Node> HEAD =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentQueue.class, Node.class, "head");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentQueue, Node> TAIL =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentQueue.class, Node.class, "tail");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+    private volatile Node<E> head;
+    private volatile Node<E> tail;
+    private final LongAdder n = new LongAdder();
+
+    /**
+     * Constructor de la cola, que empieza con head y tail apuntando al mismo centinela.
+     */
+    public ConcurrentQueue() {
+        head = tail = new Node<>(null);
+    }
+    /**
+     * Clase que representa un nodo de la cola. El dato es volatile para que poll pueda
+     * borrarlo del nuevo centinela y los iteradores lo vean.
+     *
+     * @param <E> el tipo de dato almacenado en el nodo
+     */
+    private static final class Node<E> {
+        volatile E data;
+        volatile Node<E> next;
+
+        Node(E data) {this.data = data;}
+    }
+    /**
+     * Añade un elemento al final de la cola.
+     *
+     * @param data el elemento a añadir
+     * @throws NullPointerException si el elemento es null
+     */
+    @SuppressWarnings("unchecked")
+    public void offer(E data) {
+        if (data == null) throw new NullPointerException();
+        Node<E> node = new Node<>(data);
+        while (true) {
+            Node<E> last = tail;
+            Node<E> next = last.next;
+            if (last != tail) continue;
+            if (next == null) {
+                if (NEXT.compareAndSet(last, null, node)) {
+                    TAIL.compareAndSet(this, last, node);
+                    n.increment();
+                    return;
+                }
+            } else {
+                TAIL.compareAndSet(this, last, next);
+            }
+        }
+    }
+    /**
+     * Extrae el primer elemento de la cola.
+     *
+     * @return el primer elemento, o null si la cola está vacía
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            Node<E> first = head;
+            Node<E> last = tail;
+            Node<E> next = first.next;
+            if (first != head) continue;
+            if (first == last) {
+                if (next == null) return null;
+                TAIL.compareAndSet(this, last, next);
+            } else {
+                E data = next.data;
+                if (HEAD.compareAndSet(this, first, next)) {
+                    next.data = null;
+                    n.decrement();
+                    return data;
+                }
+            }
+        }
+    }
+    /**
+     * Retorna el primer elemento de la cola sin extraerlo.
+     *
+     * @return el primer elemento, o null si la cola está vacía
+     */
+    public E peek() {
+        while (true) {
+            Node<E> first = head;
+            Node<E> next = first.next;
+            if (next == null) return null;
+            E data = next.data;
+            if (first == head && data != null) return data;
+        }
+    }
+    /**
+     * Retorna el número de elementos en la cola.
+     *
+     * @return el número de elementos en la cola
+     */
+    public int size() {
+        return (int) Math.max(0, n.sum());
+    }
+    /**
+     * Verifica si la cola está vacía.
+     *
+     * @return true si la cola está vacía, false de lo contrario
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+    /**
+     * Retorna un iterador débilmente consistente sobre los elementos de la cola, en orden FIFO.
+     *
+     * @return un iterador sobre los elementos de la cola
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna una representación en forma de cadena de la cola.
+     * La cadena contiene los elementos de la cola separados por flechas (->).
+     *
+     * @return una representación en forma de cadena de la cola
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        Iterator<E> it = iterator();
+        while (it.hasNext()) {
+            result.append(it.next());
+            if (it.hasNext()) result.append(" -> ");
+        }
+        return result.append("]").toString();
+    }
+    /**
+     * Clase interna privada que recorre los nodos desde el centinela actual. Guarda de antemano
+     * el siguiente dato no nulo, de modo que hasNext() y next() son coherentes aunque otro hilo
+     * extraiga ese elemento mientras tanto.
+     */
+    private class CIterator implements Iterator<E> {
+        private Node<E> current;
+        private E nextData;
+
+        public CIterator() {
+            current = head;
+            advance();
+        }
+        /**
+         * Avanza hasta el siguiente nodo con dato, saltando los que ya han sido extraídos.
+         */
+        private void advance() {
+            nextData = null;
+            while (nextData == null) {
+                current = current.next;
+                if (current == null) return;
+                nextData = current.data;
+            }
+        }
+        @Override
+        public boolean hasNext() {
+            return nextData != null;
+        }
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E data = nextData;
+            advance();
+            return data;
+        }
+    }
+}
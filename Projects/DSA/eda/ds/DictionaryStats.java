@@ -0,0 +1,154 @@
+package eda.ds;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Arrays;
+/**<h3>DictionaryStats - Instantánea de las estadísticas de una tabla hash
+ * </h3>
+ * Foto inmutable del estado de una tabla hash con las estadísticas activadas (ver
+ * {@link HashTable#setStatsEnabled(boolean)} y {@link RobinHoodHashTable#setStatsEnabled(boolean)}):
+ * <ul>
+ *     <li>Factor de carga actual, tamaño y capacidad.</li>
+ *     <li>Histograma de longitudes: en HashTable, cuántas cubetas tienen 0, 1, 2... entradas; en
+ *     RobinHoodHashTable, cuántas entradas están a 0, 1, 2... posiciones de su posición ideal. La
+ *     última casilla acumula las longitudes iguales o mayores que HISTOGRAM_SIZE - 1.</li>
+ *     <li>Número de get, media y máximo de entradas examinadas por get.</li>
+ *     <li>Número de rehashings y tiempo total dedicado a ellos.</li>
+ * </ul>
+ * Cada instantánea se emite además como evento JFR (eda.DictionaryStats), y cada rehashing como
+ * evento eda.DictionaryResize, de modo que aparecen en una grabación de Java Flight Recorder.
+ * <p>
+ * Con las estadísticas desactivadas la tabla no guarda ningún Recorder y el único coste en las
+ * operaciones es comprobar que ese campo es null.
+ *
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see HashTable
+ * @see RobinHoodHashTable
+ */
+public final class DictionaryStats {
+    static final int HISTOGRAM_SIZE = 17;
+    private final String implementation;
+    private final int size;
+    private final int capacity;
+    private final int[] histogram;
+    private final long gets;
+    private final double meanProbes;
+    private final int maxProbes;
+    private final int resizes;
+    private final long resizeNanos;
+
+    DictionaryStats(String implementation, int size, int capacity, int[] histogram, Recorder recorder) {
+        this.implementation = implementation;
+        this.size = size;
+        this.capacity = capacity;
+        this.histogram = histogram;
+        this.gets = recorder.gets;
+        this.meanProbes = (recorder.gets == 0) ? 0 : (double) recorder.probes / recorder.gets;
+        this.maxProbes = recorder.maxProbes;
+        this.resizes = recorder.resizes;
+        this.resizeNanos = recorder.resizeNanos;
+        SnapshotEvent event = new SnapshotEvent();
+        if (event.isEnabled()) {
+            event.implementation = implementation;
+            event.size = size;
+            event.capacity = capacity;
+            event.loadFactor = loadFactor();
+            event.meanProbes = meanProbes;
+            event.maxProbes = maxProbes;
+            event.resizes = resizes;
+            event.resizeNanos = resizeNanos;
+            event.commit();
+        }
+    }
+    public String implementation() {return implementation;}
+    public int size() {return size;}
+    public int capacity() {return capacity;}
+    public double loadFactor() {return (capacity == 0) ? 0 : (double) size / capacity;}
+    /**
+     * Retorna una copia del histograma de longitudes.
+     *
+     * @return el histograma, con HISTOGRAM_SIZE casillas
+     */
+    public int[] histogram() {return histogram.clone();}
+    public long gets() {return gets;}
+    public double meanProbes() {return meanProbes;}
+    public int maxProbes() {return maxProbes;}
+    public int resizes() {return resizes;}
+    public long resizeNanos() {return resizeNanos;}
+    /**
+     * Retorna una representación en forma de cadena de la instantánea.
+     *
+     * @return una cadena con todas las estadísticas
+     */
+    public String toString() {
+        return implementation + "[size=" + size + ", capacity=" + capacity
+                + ", loadFactor=" + String.format("%.3f", loadFactor())
+                + ", histogram=" + Arrays.toString(histogram)
+                + ", gets=" + gets + ", meanProbes=" + String.format("%.3f", meanProbes)
+                + ", maxProbes=" + maxProbes + ", resizes=" + resizes
+                + ", resizeMillis=" + resizeNanos / 1_000_000 + "]";
+    }
+    /**
+     * Acumula en el histograma la longitud indicada, saturando en la última casilla.
+     */
+    static void count(int[] histogram, int length) {
+        histogram[Math.min(length, HISTOGRAM_SIZE - 1)]++;
+    }
+    /**
+     * Contadores mutables que mantiene una tabla mientras tiene las estadísticas activadas.
+     */
+    static final class Recorder {
+        long gets, probes;
+        int maxProbes, resizes;
+        long resizeNanos;
+        void recordGet(int probeCount) {
+            gets++;
+            probes += probeCount;
+            if (probeCount > maxProbes) maxProbes = probeCount;
+        }
+        void recordResize(String implementation, int oldCapacity, int newCapacity, int size, long nanos) {
+            resizes++;
+            resizeNanos += nanos;
+            ResizeEvent event = new ResizeEvent();
+            if (event.isEnabled()) {
+                event.implementation = implementation;
+                event.oldCapacity = oldCapacity;
+                event.newCapacity = newCapacity;
+                event.size = size;
+                event.nanos = nanos;
+                event.commit();
+            }
+        }
+        void recordMigration(long nanos) {resizeNanos += nanos;}
+    }
+    @Name("eda.DictionaryResize")
+    @Label("Dictionary Resize")
+    @Category("eda")
+    @Description("Rehashing de una tabla hash de eda.ds")
+    static final class ResizeEvent extends Event {
+        @Label("Implementación") String implementation;
+        @Label("Capacidad anterior") int oldCapacity;
+        @Label("Capacidad nueva") int newCapacity;
+        @Label("Entradas") int size;
+        @Label("Duración (ns)") long nanos;
+    }
+    @Name("eda.DictionaryStats")
+    @Label("Dictionary Stats")
+    @Category("eda")
+    @Description("Instantánea de las estadísticas de una tabla hash de eda.ds")
+    static final class SnapshotEvent extends Event {
+        @Label("Implementación") String implementation;
+        @Label("Entradas") int size;
+        @Label("Capacidad") int capacity;
+        @Label("Factor de carga") double loadFactor;
+        @Label("Media de sondeos por get") double meanProbes;
+        @Label("Máximo de sondeos por get") int maxProbes;
+        @Label("Rehashings") int resizes;
+        @Label("Tiempo de rehashing (ns)") long resizeNanos;
+    }
+}
@@ -0,0 +1,242 @@
+package eda.ds;
+
+import eda.adt.List;
+import eda.exceptions.WrongIndexException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+/**<h3>DoubleList - Lista de double primitivos
+ * </h3>
+ * Especialización de GapBufferList para elementos de tipo double. Implementa
+ * List&lt;Double&gt;, por lo que puede sustituir a una ListImpl&lt;Double&gt;, pero además ofrece
+ * sobrecargas de insert, get y search que reciben y devuelven double sin crear ningún Double, y
+ * un iterador primitivo (PrimitiveIterator.OfDouble) cuyo nextDouble() tampoco los crea.
+ * <p>
+ * Los elementos se guardan en un único array de double con un hueco de posiciones libres en la
+ * posición de la última modificación, igual que en GapBufferList. Cada elemento ocupa 8
+ * bytes, frente a los más de 40 de un Double enlazado en un nodo de ListImpl.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>insert: O(|k - g|), donde k es la posición de inserción y g la posición actual del
+ *     hueco; O(1) amortizado para inserciones consecutivas.</li>
+ *     <li>delete: O(|k - g|), igual que insert.</li>
+ *     <li>get: O(1).</li>
+ *     <li>search: O(N).</li>
+ * </ul>
+ * Las sobrecargas de List que reciben un Double lanzan NullPointerException si es null, porque
+ * la lista no puede guardarlo; search(null) retorna -1.
+ *
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 1 - Estructuras de Datos y Algoritmos
+ * @see GapBufferList
+ */
+public class DoubleList implements List<Double> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private double[] buffer;
+    private int gapStart;
+    private int gapEnd;
+
+    public DoubleList(int capacity) {
+        buffer = new double[Math.max(capacity, 1)];
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+    public DoubleList() {
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Convierte una posición lógica de la lista en su posición en el array, saltando el hueco.
+     *
+     * @param pos la posición lógica
+     * @return la posición en el array
+     */
+    private int physical(int pos) {
+        return (pos < gapStart) ? pos : pos + (gapEnd - gapStart);
+    }
+    /**
+     * Desplaza el hueco para que empiece en la posición lógica indicada.
+     *
+     * @param pos la nueva posición del hueco
+     */
+    private void moveGap(int pos) {
+        if (pos < gapStart) {
+            int count = gapStart - pos;
+            System.arraycopy(buffer, pos, buffer, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (pos > gapStart) {
+            int count = pos - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+    /**
+     * Copia los elementos a un array nuevo de la capacidad indicada, dejando el hueco en la
+     * misma posición lógica.
+     *
+     * @param capacity la nueva capacidad, mayor o igual que el tamaño de la lista
+     */
+    private void reallocate(int capacity) {
+        double[] aux = new double[capacity];
+        int tail = buffer.length - gapEnd;
+        System.arraycopy(buffer, 0, aux, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, aux, capacity - tail, tail);
+        buffer = aux;
+        gapEnd = capacity - tail;
+    }
+    /**
+     * Inserta un elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición en la que insertar el elemento
+     * @param data el elemento a insertar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public void insert(int pos, double data) throws WrongIndexException {
+        if (pos < 0 || pos > size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        if (gapStart == gapEnd) reallocate(buffer.length * 2);
+        moveGap(pos);
+        buffer[gapStart++] = data;
+    }
+    @Override
+    public void insert(int pos, Double data) throws WrongIndexException {
+        insert(pos, data.doubleValue());
+    }
+    /**
+     * Elimina el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o igual o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a eliminar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void delete(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        moveGap(pos);
+        gapEnd++;
+        if (buffer.length > DEFAULT_CAPACITY && size() < buffer.length / 4) reallocate(buffer.length / 2);
+    }
+    /**
+     * Obtiene el elemento en la posición especificada de la lista sin envolverlo.
+     * Si la posición es menor que 0 o mayor o igual que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a obtener
+     * @return el elemento en la posición especificada
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public double getDouble(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return buffer[physical(pos)];
+    }
+    @Override
+    public Double get(int pos) throws WrongIndexException {
+        return getDouble(pos);
+    }
+    /**
+     * Busca el índice de la primera aparición del elemento especificado en la lista.
+     * Si el elemento no se encuentra en la lista, retorna -1.
+     * Los elementos se comparan como Double.equals: NaN es igual a NaN y 0.0 distinto de -0.0.
+     *
+     * @param data el elemento a buscar
+     * @return el índice de la primera aparición del elemento, o -1 si no se encuentra
+     */
+    public int search(double data) {
+        long bits = Double.doubleToLongBits(data);
+        for (int i = 0; i < gapStart; i++) {
+            if (Double.doubleToLongBits(buffer[i]) == bits) return i;
+        }
+        for (int i = gapEnd; i < buffer.length; i++) {
+            if (Double.doubleToLongBits(buffer[i]) == bits) return i - (gapEnd - gapStart);
+        }
+        return -1;
+    }
+    @Override
+    public int search(Double data) {
+        return (data == null) ? -1 : search(data.doubleValue());
+    }
+    /**
+     * Retorna un iterador primitivo sobre los elementos de la lista. nextDouble() no reserva
+     * memoria; next(), heredado de Iterator, envuelve cada elemento.
+     *
+     * @return un iterador sobre los elementos de la lista
+     */
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna el número de elementos en la lista.
+     *
+     * @return el número de elementos en la lista
+     */
+    @Override
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+    /**
+     * Retorna una copia de los elementos de la lista en orden.
+     *
+     * @return un array con los elementos de la lista
+     */
+    public double[] toArray() {
+        double[] result = Arrays.copyOf(buffer, size());
+        System.arraycopy(buffer, gapEnd, result, gapStart, buffer.length - gapEnd);
+        return result;
+    }
+    /**
+     * Retorna una representación en forma de cadena de la lista.
+     * La cadena contiene los elementos de la lista separados por flechas (->).
+     *
+     * @return una representación en forma de cadena de la lista
+     */
+    @Override
+    public String toString() {
+        if (size() == 0) return "[]";
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) result.append(" -> ");
+            result.append(buffer[physical(i)]);
+        }
+        result.append("]");
+        return result.toString();
+    }
+    /**
+     * Clase interna privada que implementa un iterador primitivo sobre los elementos de la lista.
+     */
+    private class CIterator implements PrimitiveIterator.OfDouble {
+        private int current;
+        /**
+         * Constructor del iterador que se sitúa en la primera posición ocupada del array.
+         */
+        public CIterator() {
+            current = (gapStart == 0) ? gapEnd : 0;
+        }
+        /**
+         * Verifica si hay más elementos en la lista.
+         *
+         * @return true si hay más elementos, false de lo contrario
+         */
+        @Override
+        public boolean hasNext() {
+            return current < buffer.length;
+        }
+        /**
+         * Retorna el siguiente elemento en la lista sin envolverlo.
+         *
+         * @return el siguiente elemento en la lista
+         * @throws NoSuchElementException si no hay más elementos en la lista
+         */
+        @Override
+        public double nextDouble() {
+            if (!hasNext()) throw new NoSuchElementException();
+            double data = buffer[current++];
+            if (current == gapStart) current = gapEnd;
+            return data;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package eda.ds;
+
+import eda.adt.List;
+import eda.exceptions.WrongIndexException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+/**<h3>GapBufferList - Lista sobre un buffer con hueco
+ * </h3>
+ * Implementación de la interfaz List sobre un único array con un hueco (gap) de posiciones
+ * libres en medio. Los elementos anteriores al hueco ocupan el principio del array y los
+ * posteriores, el final. Insertar o eliminar en la posición del hueco es O(1); en otra posición
+ * basta con desplazar el hueco hasta ella copiando los elementos que hay entre medias.
+ * <p>
+ * Frente a ListImpl, get(pos) no recorre nodos sino que calcula directamente la posición en el
+ * array, y cada elemento ocupa una sola referencia en lugar de un nodo con dato, anterior y
+ * siguiente (unos 24-32 bytes más la referencia), con lo que la memoria por elemento se reduce
+ * varias veces y los recorridos acceden a memoria contigua. A cambio, una inserción lejos de la
+ * anterior copia los elementos intermedios; las cargas de trabajo que insertan y eliminan en
+ * posiciones cercanas entre sí (edición de texto, colas, listas que crecen por el final) son
+ * las que más se benefician.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>insert: O(|k - g|), donde k es la posición de inserción y g la posición actual del
+ *     hueco; O(1) amortizado para inserciones consecutivas. Si el hueco se llena, el array
+ *     se duplica en O(N).</li>
+ *     <li>delete: O(|k - g|), igual que insert.</li>
+ *     <li>get: O(1).</li>
+ *     <li>search: O(N).</li>
+ *     <li>insertAll: O(|k - g| + M), donde M es el tamaño de la otra lista.</li>
+ * </ul>
+ * <p>
+ * Complejidad espacial: O(N), con como mucho el doble de posiciones que elementos salvo tras
+ * eliminar muchos; el array se reduce a la mitad cuando queda ocupado en menos de una cuarta parte.
+ *
+ * @param <E> el tipo de elementos que se almacenan en la lista
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 1 - Estructuras de Datos y Algoritmos
+ * @see ListImpl
+ */
+public class GapBufferList<E> implements List<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private Object[] buffer;
+    private int gapStart;
+    private int gapEnd;
+
+    public GapBufferList(int capacity) {
+        buffer = new Object[Math.max(capacity, 1)];
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+    public GapBufferList() {
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Convierte una posición lógica de la lista en su posición en el array, saltando el hueco.
+     *
+     * @param pos la posición lógica
+     * @return la posición en el array
+     */
+    private int physical(int pos) {
+        return (pos < gapStart) ? pos : pos + (gapEnd - gapStart);
+    }
+    /**
+     * Desplaza el hueco para que empiece en la posición lógica indicada. Las posiciones que
+     * pasan a formar parte del hueco se ponen a null para no retener los elementos.
+     *
+     * @param pos la nueva posición del hueco
+     */
+    private void moveGap(int pos) {
+        if (pos < gapStart) {
+            int count = gapStart - pos;
+            System.arraycopy(buffer, pos, buffer, gapEnd - count, count);
+            Arrays.fill(buffer, pos, Math.min(gapStart, gapEnd - count), null);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (pos > gapStart) {
+            int count = pos - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            Arrays.fill(buffer, Math.max(gapEnd, gapStart + count), gapEnd + count, null);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+    /**
+     * Copia los elementos a un array nuevo de la capacidad indicada, dejando el hueco en la
+     * misma posición lógica.
+     *
+     * @param capacity la nueva capacidad, mayor o igual que el tamaño de la lista
+     */
+    private void reallocate(int capacity) {
+        Object[] aux = new Object[capacity];
+        int tail = buffer.length - gapEnd;
+        System.arraycopy(buffer, 0, aux, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, aux, capacity - tail, tail);
+        buffer = aux;
+        gapEnd = capacity - tail;
+    }
+    /**
+     * Inserta un elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición en la que insertar el elemento
+     * @param data el elemento a insertar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void insert(int pos, E data) throws WrongIndexException {
+        if (pos < 0 || pos > size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        if (gapStart == gapEnd) reallocate(buffer.length * 2);
+        moveGap(pos);
+        buffer[gapStart++] = data;
+    }
+    /**
+     * Inserta todos los elementos de otra lista a partir de la posición indicada. El hueco se
+     * agranda una sola vez para todo el lote y se desplaza una sola vez hasta la posición.
+     *
+     * @param pos la posición en la que insertar el primer elemento
+     * @param other la lista cuyos elementos se insertan, que puede ser esta misma o una vista de ella
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void insertAll(int pos, List<? extends E> other) throws WrongIndexException {
+        if (pos < 0 || pos > size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        // Se copia antes de tocar el buffer: other puede ser esta lista o una vista de ella.
+        Object[] items = new Object[other.size()];
+        int count = 0;
+        for (E data : other) items[count++] = data;
+        if (gapEnd - gapStart < count) reallocate(Math.max(buffer.length * 2, size() + count));
+        moveGap(pos);
+        System.arraycopy(items, 0, buffer, gapStart, count);
+        gapStart += count;
+    }
+    /**
+     * Elimina el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o igual o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a eliminar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void delete(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        moveGap(pos);
+        buffer[gapEnd++] = null;
+        if (buffer.length > DEFAULT_CAPACITY && size() < buffer.length / 4) reallocate(buffer.length / 2);
+    }
+    /**
+     * Obtiene el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor o igual que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a obtener
+     * @return el elemento en la posición especificada
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return (E) buffer[physical(pos)];
+    }
+    /**
+     * Busca el índice de la primera aparición del elemento especificado en la lista.
+     * Si el elemento no se encuentra en la lista, retorna -1.
+     *
+     * @param data el elemento a buscar
+     * @return el índice de la primera aparición del elemento, o -1 si no se encuentra
+     */
+    @Override
+    public int search(E data) {
+        for (int i = 0; i < gapStart; i++) {
+            if (buffer[i] != null && buffer[i].equals(data)) return i;
+        }
+        for (int i = gapEnd; i < buffer.length; i++) {
+            if (buffer[i] != null && buffer[i].equals(data)) return i - (gapEnd - gapStart);
+        }
+        return -1;
+    }
+    /**
+     * Retorna un iterador sobre los elementos de la lista.
+     *
+     * @return un iterador sobre los elementos de la lista
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna el número de elementos en la lista.
+     *
+     * @return el número de elementos en la lista
+     */
+    @Override
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+    /**
+     * Retorna una representación en forma de cadena de la lista.
+     * La cadena contiene los elementos de la lista separados por flechas (->).
+     *
+     * @return una representación en forma de cadena de la lista
+     */
+    @Override
+    public String toString() {
+        if (size() == 0) return "[]";
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) result.append(" -> ");
+            result.append(buffer[physical(i)]);
+        }
+        result.append("]");
+        return result.toString();
+    }
+    /**
+     * Clase interna privada que implementa un iterador sobre los elementos de la lista.
+     */
+    private class CIterator implements Iterator<E> {
+        private int current;
+        /**
+         * Constructor del iterador que se sitúa en la primera posición ocupada del array.
+         */
+        public CIterator() {
+            current = (gapStart == 0) ? gapEnd : 0;
+        }
+        /**
+         * Verifica si hay más elementos en la lista.
+         *
+         * @return true si hay más elementos, false de lo contrario
+         */
+        @Override
+        public boolean hasNext() {
+            return current < buffer.length;
+        }
+        /**
+         * Retorna el siguiente elemento en la lista.
+         *
+         * @return el siguiente elemento en la lista
+         * @throws NoSuchElementException si no hay más elementos en la lista
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E data = (E) buffer[current++];
+            if (current == gapStart) current = gapEnd;
+            return data;
+        }
+    }
+}
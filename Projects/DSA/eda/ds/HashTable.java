@@ -1,8 +1,10 @@
 package eda.ds;
 import eda.adt.Dictionary;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 /**<h3>HashTable - Con encadenamiento de entradas de tabla de pares clave valor enlazados
  * </h3>
  * Implementación de una tabla hash utilizando encadenamiento para resolver colisiones.
@@ -22,12 +24,36 @@ import java.util.NoSuchElementException;
  *     <li>isEmpty: O(1).</li>
  *     <li>clear: O(1).</li>
  *     <li>iterator: O(n), donde n es el número de elementos en la tabla hash.</li>
+ *     <li>putAll: O(m) en promedio para m claves, con un único rehashing como mucho.</li>
+ *     <li>getAll: O(m) en promedio para m claves.</li>
+ *     <li>removeAll: O(m) en promedio para m claves, con una búsqueda por clave.</li>
+ *     <li>spliterator: O(1), salvo que termina antes una migración pendiente; cada división es O(1).</li>
  * </ul>
  * <p>
  * La tabla hash realiza un rehashing cuando el factor de carga supera el umbral predefinido (0.75).
  * El rehashing implica duplicar el tamaño de la tabla y reasignar todas las entradas existentes
  * a las nuevas posiciones de la tabla, lo que puede llevar a un aumento temporal en la complejidad
  * de las operaciones.
+ * <p>
+ * Opcionalmente, el rehashing puede ser incremental (ver {@link #HashTable(int, boolean)}): al
+ * superar el umbral se reserva la nueva tabla pero se conserva la antigua, y cada put, get o remove
+ * posterior traslada un número acotado de cubetas (MIGRATION_STEP). Mientras dura la migración
+ * las búsquedas consultan ambas tablas, de modo que ninguna operación individual paga O(n), y las
+ * claves nuevas cuya cubeta aún no se ha trasladado se insertan en la tabla antigua.
+ * <p>
+ * La capacidad es siempre una potencia de dos y el índice se obtiene con una máscara sobre el
+ * código hash dispersado por una {@link HashStrategy}. La estrategia por defecto aplica el
+ * finalizador de MurmurHash3 a hashCode(), para que las claves secuenciales (Integer, Long) no
+ * se agrupen en cubetas contiguas; {@link HashStrategy#randomized()} añade una semilla aleatoria
+ * por tabla. Ninguna estrategia separa claves con el mismo hashCode(), así que, además, una cadena
+ * que supera TREEIFY_THRESHOLD entradas se convierte en un árbol AVL ordenado por el código hash
+ * (y por compareTo si las claves son Comparable), y vuelve a ser una cadena al bajar de
+ * UNTREEIFY_THRESHOLD. Con claves Comparable adversarias o de poca entropía las operaciones
+ * siguen siendo O(log n) en el peor caso en lugar de O(n).
+ * <p>
+ * Con {@link #setStatsEnabled(boolean)} la tabla registra los sondeos de cada get y la duración de
+ * cada rehashing, y {@link #stats()} devuelve una instantánea con esas cifras y el histograma de
+ * longitudes de las cadenas. Desactivadas, que es lo habitual, no tienen ningún coste apreciable.
  *
  * @param <K> el tipo de las claves almacenadas en la tabla hash
  * @param <V> el tipo de los valores asociados a las claves en la tabla hash
@@ -38,11 +64,38 @@ import java.util.NoSuchElementException;
 public class HashTable<K, V> implements Dictionary<K, V> {
     private static final int DEFAULT_CAPACITY = 16;
     private static final double LOAD_FACTOR = 0.75;
+    private static final int MIGRATION_STEP = 8;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int MIN_TREEIFY_CAPACITY = 64;
     private TableEntry<K, V>[] table;
+    private TableEntry<K, V>[] oldTable;
+    private int migrateIndex = 0;
+    private final boolean incremental;
+    private final HashStrategy strategy;
     private int n = 0;
-    @SuppressWarnings("unchecked")
+    private DictionaryStats.Recorder stats;
+    // Entradas examinadas por la última llamada a getEntry.
+    private int lastProbes;
+    /**
+     * Constructor de la tabla hash con la capacidad, el modo de rehashing y la estrategia de hash indicados.
+     *
+     * @param capacity la capacidad inicial de la tabla, que se redondea a la siguiente potencia de dos
+     * @param incremental true para repartir el rehashing entre las operaciones posteriores,
+     *                    false para realizarlo de una sola vez
+     * @param strategy la función que dispersa el hashCode() de las claves
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashTable(int capacity, boolean incremental, HashStrategy strategy){
+        table =(TableEntry<K, V>[]) new TableEntry[tableSizeFor(capacity)];
+        this.incremental = incremental;
+        this.strategy = strategy;
+    }
+    public HashTable(int capacity, boolean incremental){
+        this(capacity, incremental, HashStrategy.MURMUR3);
+    }
     public HashTable(int capacity){
-        table =(TableEntry<K, V>[]) new TableEntry[capacity];
+        this(capacity, false);
     }
     public HashTable(){
         this(DEFAULT_CAPACITY);
@@ -51,10 +104,12 @@ public class HashTable<K, V> implements Dictionary<K, V> {
      * Clase interna que representa una entrada en la tabla hash.
      */
     private static class TableEntry<K, V> {
+        final int hash;
         K key;
         V value;
         TableEntry<K, V> next;
-        TableEntry(K key, V value, TableEntry<K, V> next){
+        TableEntry(int hash, K key, V value, TableEntry<K, V> next){
+            this.hash = hash;
             this.key = key;
             this.value = value;
             this.next = next;
@@ -72,15 +127,219 @@ public class HashTable<K, V> implements Dictionary<K, V> {
             return ent.key.equals(key);
         }
     }
+    /**
+     * Función que dispersa el hashCode() de una clave antes de aplicarle la máscara de la tabla.
+     */
+    @FunctionalInterface
+    public interface HashStrategy {
+        int hash(Object key);
+
+        /**
+         * Finalizador de MurmurHash3 sobre hashCode(): cada bit de entrada afecta a todos los de salida.
+         */
+        HashStrategy MURMUR3 = key -> mix(key.hashCode());
+        /**
+         * Como MURMUR3 pero combinando hashCode() con la semilla indicada.
+         *
+         * @param seed la semilla
+         * @return la estrategia con semilla
+         */
+        static HashStrategy seeded(int seed) {
+            return key -> mix(key.hashCode() ^ seed);
+        }
+        /**
+         * Como MURMUR3 con una semilla aleatoria, de modo que la distribución de las claves en las
+         * cubetas no puede predecirse desde fuera del proceso.
+         *
+         * @return la estrategia con una semilla aleatoria
+         */
+        static HashStrategy randomized() {
+            return seeded(ThreadLocalRandom.current().nextInt());
+        }
+    }
+    /**
+     * Entrada de una cubeta convertida en árbol. Además de los enlaces del árbol mantiene la
+     * lista doblemente enlazada next/prev, que es la que recorren el iterador y la migración.
+     */
+    private static final class TreeEntry<K, V> extends TableEntry<K, V> {
+        TreeEntry<K, V> left, right, prev;
+        int height;
+        TreeEntry(int hash, K key, V value){
+            super(hash, key, value, null);
+        }
+    }
+    /**
+     * Cubeta convertida en un árbol AVL de entradas. Las entradas se ordenan por su código hash y,
+     * a igualdad, por compareTo si las claves son Comparable de la misma clase; el resto de empates
+     * se deshace con el nombre de la clase y System.identityHashCode. Ocupa la posición de la tabla
+     * como si fuera la cabeza de la cadena, con clave null.
+     */
+    private static final class TreeBin<K, V> extends TableEntry<K, V> {
+        TreeEntry<K, V> root;
+        TreeEntry<K, V> first;
+        int count;
+        // Nodos visitados por find desde que el llamante lo puso a 0, para las estadísticas.
+        int probes;
+        /**
+         * Construye el árbol copiando las entradas de la cadena indicada.
+         *
+         * @param chain la primera entrada de la cadena
+         */
+        TreeBin(TableEntry<K, V> chain){
+            super(0, null, null, null);
+            for (TableEntry<K, V> e = chain; e != null; e = e.next) add(new TreeEntry<>(e.hash, e.key, e.value));
+        }
+        /**
+         * Busca la entrada con la clave indicada. Si dos claves con el mismo código hash no se
+         * pueden ordenar entre sí, se busca en ambos subárboles.
+         */
+        TreeEntry<K, V> find(TreeEntry<K, V> node, int h, Object key){
+            while (node != null) {
+                probes++;
+                if (h != node.hash) node = (h < node.hash) ? node.left : node.right;
+                else if (key.equals(node.key)) return node;
+                else {
+                    int c = compareComparables(key, node.key);
+                    if (c < 0) node = node.left;
+                    else if (c > 0) node = node.right;
+                    else {
+                        TreeEntry<K, V> found = find(node.right, h, key);
+                        if (found != null) return found;
+                        node = node.left;
+                    }
+                }
+            }
+            return null;
+        }
+        /**
+         * Añade una entrada cuya clave se sabe ausente.
+         */
+        void add(TreeEntry<K, V> entry){
+            entry.next = first;
+            if (first != null) first.prev = entry;
+            first = entry;
+            root = insert(root, entry);
+            count++;
+        }
+        /**
+         * Elimina la entrada indicada del árbol y de la lista.
+         */
+        void remove(TreeEntry<K, V> entry){
+            root = delete(root, entry);
+            if (entry.prev == null) first = (TreeEntry<K, V>) entry.next;
+            else entry.prev.next = entry.next;
+            if (entry.next != null) ((TreeEntry<K, V>) entry.next).prev = entry.prev;
+            count--;
+        }
+        private TreeEntry<K, V> insert(TreeEntry<K, V> node, TreeEntry<K, V> entry){
+            if (node == null) return entry;
+            if (order(entry, node) < 0) node.left = insert(node.left, entry);
+            else node.right = insert(node.right, entry);
+            return balance(node);
+        }
+        private TreeEntry<K, V> delete(TreeEntry<K, V> node, TreeEntry<K, V> entry){
+            if (node == null) return null;
+            if (node == entry) {
+                if (node.left == null) return node.right;
+                if (node.right == null) return node.left;
+                TreeEntry<K, V> successor = node.right;
+                while (successor.left != null) successor = successor.left;
+                successor.right = deleteMin(node.right);
+                successor.left = node.left;
+                return balance(successor);
+            }
+            int c = order(entry, node);
+            if (c < 0) node.left = delete(node.left, entry);
+            else if (c > 0) node.right = delete(node.right, entry);
+            else {
+                node.left = delete(node.left, entry);
+                node.right = delete(node.right, entry);
+            }
+            return balance(node);
+        }
+        private TreeEntry<K, V> deleteMin(TreeEntry<K, V> node){
+            if (node.left == null) return node.right;
+            node.left = deleteMin(node.left);
+            return balance(node);
+        }
+        private static int height(TreeEntry<?, ?> node) {return (node == null) ? -1 : node.height;}
+        private static void updateHeight(TreeEntry<?, ?> node) {node.height = Math.max(height(node.left), height(node.right)) + 1;}
+        private TreeEntry<K, V> rotateLeft(TreeEntry<K, V> x){
+            TreeEntry<K, V> y = x.right;
+            x.right = y.left;
+            y.left = x;
+            updateHeight(x);
+            updateHeight(y);
+            return y;
+        }
+        private TreeEntry<K, V> rotateRight(TreeEntry<K, V> x){
+            TreeEntry<K, V> y = x.left;
+            x.left = y.right;
+            y.right = x;
+            updateHeight(x);
+            updateHeight(y);
+            return y;
+        }
+        private TreeEntry<K, V> balance(TreeEntry<K, V> node){
+            updateHeight(node);
+            int balanceFactor = height(node.left) - height(node.right);
+            if (balanceFactor > 1) {
+                if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+                return rotateRight(node);
+            }
+            if (balanceFactor < -1) {
+                if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+                return rotateLeft(node);
+            }
+            return node;
+        }
+        /**
+         * Orden total entre dos entradas del árbol, usado para insertar y eliminar.
+         */
+        private static int order(TableEntry<?, ?> a, TableEntry<?, ?> b){
+            if (a.hash != b.hash) return (a.hash < b.hash) ? -1 : 1;
+            int c = compareComparables(a.key, b.key);
+            if (c != 0) return c;
+            c = a.key.getClass().getName().compareTo(b.key.getClass().getName());
+            if (c != 0) return c;
+            return Integer.compare(System.identityHashCode(a.key), System.identityHashCode(b.key));
+        }
+        /**
+         * Compara dos claves si son Comparable de la misma clase.
+         *
+         * @return el resultado de compareTo, o 0 si no son comparables entre sí
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareComparables(Object a, Object b){
+            if (a instanceof Comparable && a.getClass() == b.getClass()) return ((Comparable) a).compareTo(b);
+            return 0;
+        }
+    }
+    /**
+     * Retorna la primera entrada de la cadena de una cubeta, tanto si es una lista como un árbol.
+     *
+     * @param head el contenido de la cubeta
+     * @return la primera entrada de la lista de la cubeta, o null si está vacía
+     */
+    private static <K, V> TableEntry<K, V> chainOf(TableEntry<K, V> head){
+        return (head instanceof TreeBin) ? ((TreeBin<K, V>) head).first : head;
+    }
     /**
      * Clase interna que implementa el iterador para la tabla hash.
+     * <p>
+     * El iterador recorre cubetas lógicas: si hay una migración en curso, la cubeta j es la cubeta j
+     * de la tabla antigua o, si ya se ha trasladado, las cubetas j y j + span de la nueva. Así un
+     * paso de migración provocado por un get durante el recorrido no omite ni repite claves.
      */
     private class CIterator implements Iterator<K>{
         private TableEntry<K, V> current;
         private int table_index;
+        private boolean upper;
+        private final int span;
 
         public CIterator() {
             this.table_index = -1;
+            this.span = (oldTable != null) ? oldTable.length : table.length;
             advance();
         }
         /**
@@ -89,14 +348,21 @@ public class HashTable<K, V> implements Dictionary<K, V> {
         private void advance() {
             if (current != null && current.next != null) {
                 current = current.next;
-            } else {
-                current = null;
-                while (++table_index < table.length) {
-                    if (table[table_index] != null) {
-                        current = table[table_index];
-                        break;
+                return;
+            }
+            current = null;
+            while (current == null) {
+                if (upper) {
+                    upper = false;
+                    current = chainOf(table[table_index + span]);
+                } else if (++table_index < span) {
+                    if (oldTable != null && oldTable.length == span && table_index >= migrateIndex) {
+                        current = chainOf(oldTable[table_index]);
+                    } else {
+                        current = chainOf(table[table_index]);
+                        upper = table.length == span * 2;
                     }
-                }
+                } else return;
             }
         }
         @Override
@@ -120,16 +386,62 @@ public class HashTable<K, V> implements Dictionary<K, V> {
      * @return la entrada correspondiente a la clave especificada, o null si no se encuentra
      */
     private TableEntry<K, V> getEntry(K key){
-        int index = hash(key);
-        if (table[index] == null) return null;
-        else {
-            TableEntry<K, V> aux = table[index];
-            while (aux != null){
-                if (aux.key.equals(key)) return aux;
-                aux = aux.next;
-            }
-            return aux;
+        return getEntry(hash(key), key);
+    }
+    private TableEntry<K, V> getEntry(int h, K key){
+        lastProbes = 0;
+        TableEntry<K, V> entry = findInBucket(table, h, key);
+        if (entry == null && oldTable != null) {
+            if (indexFor(h, oldTable.length) >= migrateIndex) entry = findInBucket(oldTable, h, key);
         }
+        return entry;
+    }
+    /**
+     * Recorre la cadena de una cubeta, o desciende por su árbol, buscando la clave especificada.
+     * Suma a lastProbes las entradas que examina.
+     *
+     * @param buckets la tabla en la que buscar
+     * @param h el código hash dispersado de la clave
+     * @param key la clave a buscar
+     * @return la entrada con la clave especificada, o null si no está en la cubeta
+     */
+    private TableEntry<K, V> findInBucket(TableEntry<K, V>[] buckets, int h, K key){
+        TableEntry<K, V> aux = buckets[indexFor(h, buckets.length)];
+        if (aux instanceof TreeBin<K, V> bin) {
+            bin.probes = 0;
+            TableEntry<K, V> found = bin.find(bin.root, h, key);
+            lastProbes += bin.probes;
+            return found;
+        }
+        while (aux != null){
+            lastProbes++;
+            if (aux.hash == h && aux.key.equals(key)) return aux;
+            aux = aux.next;
+        }
+        return null;
+    }
+    /**
+     * Añade a la cubeta correspondiente una entrada cuya clave se sabe ausente. Si la cadena
+     * supera TREEIFY_THRESHOLD entradas y la tabla es suficientemente grande, la cubeta se
+     * convierte en un árbol.
+     *
+     * @param buckets la tabla en la que insertar
+     * @param h el código hash dispersado de la clave
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     */
+    private static <K, V> void addEntry(TableEntry<K, V>[] buckets, int h, K key, V value){
+        int index = indexFor(h, buckets.length);
+        TableEntry<K, V> head = buckets[index];
+        if (head instanceof TreeBin) {
+            ((TreeBin<K, V>) head).add(new TreeEntry<>(h, key, value));
+            return;
+        }
+        buckets[index] = new TableEntry<>(h, key, value, head);
+        if (buckets.length < MIN_TREEIFY_CAPACITY) return;
+        int length = 0;
+        for (TableEntry<K, V> e = buckets[index]; e != null; e = e.next) length++;
+        if (length > TREEIFY_THRESHOLD) buckets[index] = new TreeBin<>(buckets[index]);
     }
     /**
      * Agrega un par clave-valor a la tabla hash.
@@ -139,16 +451,19 @@ public class HashTable<K, V> implements Dictionary<K, V> {
      * @return el valor anterior asociado a la clave, o null si la clave no estaba presente
      */
     public V put(K key, V value) {
-        int index = hash(key);
-        TableEntry<K, V> entry = getEntry(key);
+        migrateStep();
+        int h = hash(key);
+        TableEntry<K, V> entry = getEntry(h, key);
         if (entry == null){
             this.n++;
-            table[index] = new TableEntry<>(key, value, table[index]);
+            // Una clave cuya cubeta aún no se ha trasladado va a la tabla antigua, para que el
+            // iterador encuentre cada cubeta pendiente entera en oldTable.
+            boolean pending = oldTable != null && indexFor(h, oldTable.length) >= migrateIndex;
+            addEntry(pending ? oldTable : table, h, key, value);
             if ((double)this.n/table.length > LOAD_FACTOR) resize(table.length*2);
             return null;
         } else {
             V result = entry.value;
-            entry.key = key;
             entry.value = value;
             return result;
         }
@@ -160,7 +475,9 @@ public class HashTable<K, V> implements Dictionary<K, V> {
      * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
      */
     public V get(K key) {
+        migrateStep();
         TableEntry<K, V> entry = getEntry(key);
+        if (stats != null) stats.recordGet(lastProbes);
         if (entry == null) return null;
         else return entry.value;
     }
@@ -171,24 +488,72 @@ public class HashTable<K, V> implements Dictionary<K, V> {
      * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
      */
     public V remove(K key) {
-        int index = hash(key);
-        TableEntry<K, V> entry = getEntry(key);
-        if (entry != null) {
-            if (entry == table[index]) {
-                table[index] = entry.next;
-            } else {
-                TableEntry<K, V> prev = table[index];
-                while (prev.next != entry) {
-                    prev = prev.next;
-                }
-                prev.next = entry.next;
-            }
-            this.n--;
-            return entry.value;
-        }
-
+        TableEntry<K, V> entry = removeEntry(key);
+        if (entry != null) return entry.value;
         return null;
     }
+    /**
+     * Elimina todas las claves indicadas, con una sola búsqueda por clave. Agrupar antes las
+     * claves por cubeta no compensa: las entradas están repartidas por el heap de todos modos,
+     * y en BenchTabla ordenar o contar las cubetas costaba más que lo que se ganaba.
+     *
+     * @param keys las claves a eliminar
+     * @return el número de entradas eliminadas
+     */
+    @Override
+    public int removeAll(K[] keys) {
+        int removed = 0;
+        for (K key : keys) {
+            if (removeEntry(key) != null) removed++;
+        }
+        return removed;
+    }
+    /**
+     * Desenlaza la entrada de la clave, buscándola también en la tabla antigua si su cubeta
+     * aún no se ha trasladado, y actualiza el número de entradas.
+     *
+     * @param key la clave de la entrada que se desea eliminar
+     * @return la entrada eliminada, o null si la clave no se encuentra en la tabla
+     */
+    private TableEntry<K, V> removeEntry(K key) {
+        migrateStep();
+        int h = hash(key);
+        TableEntry<K, V> entry = unlink(table, h, key);
+        if (entry == null && oldTable != null) {
+            if (indexFor(h, oldTable.length) >= migrateIndex) entry = unlink(oldTable, h, key);
+        }
+        if (entry != null) this.n--;
+        return entry;
+    }
+    /**
+     * Desenlaza de su cubeta la entrada con la clave especificada. Un árbol que baja de
+     * UNTREEIFY_THRESHOLD entradas vuelve a ser una cadena.
+     *
+     * @param buckets la tabla de la que eliminar
+     * @param h el código hash dispersado de la clave
+     * @param key la clave a eliminar
+     * @return la entrada desenlazada, o null si no estaba en la cubeta
+     */
+    private TableEntry<K, V> unlink(TableEntry<K, V>[] buckets, int h, K key){
+        int index = indexFor(h, buckets.length);
+        if (buckets[index] instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) buckets[index];
+            TreeEntry<K, V> entry = bin.find(bin.root, h, key);
+            if (entry == null) return null;
+            bin.remove(entry);
+            if (bin.count < UNTREEIFY_THRESHOLD) buckets[index] = bin.first;
+            return entry;
+        }
+        TableEntry<K, V> prev = null, entry = buckets[index];
+        while (entry != null && !(entry.hash == h && entry.key.equals(key))) {
+            prev = entry;
+            entry = entry.next;
+        }
+        if (entry == null) return null;
+        if (prev == null) buckets[index] = entry.next;
+        else prev.next = entry.next;
+        return entry;
+    }
     /**
      * Verifica si la tabla hash contiene una entrada con la clave especificada.
      *
@@ -198,6 +563,41 @@ public class HashTable<K, V> implements Dictionary<K, V> {
     public boolean contains(K key) {
         return getEntry(key) != null;
     }
+    /**
+     * Agrega todos los pares keys[i]-values[i]. La tabla se redimensiona como mucho una vez,
+     * al tamaño que necesita el lote completo, en lugar de duplicarse varias veces durante la carga.
+     *
+     * @param keys las claves a agregar
+     * @param values los valores asociados, en el mismo orden
+     * @throws IllegalArgumentException si los arrays no tienen la misma longitud
+     */
+    @Override
+    public void putAll(K[] keys, V[] values) {
+        if (keys.length != values.length) throw new IllegalArgumentException("keys y values deben tener la misma longitud");
+        int capacity = table.length;
+        while ((double)(this.n + keys.length)/capacity > LOAD_FACTOR) capacity *= 2;
+        if (capacity != table.length) resize(capacity);
+        for (int i = 0; i < keys.length; i++) put(keys[i], values[i]);
+    }
+    /**
+     * Obtiene los valores de todas las claves y los deja en values[i], o null si keys[i] no está.
+     *
+     * @param keys las claves a consultar
+     * @param values el array que recibe los valores, de la misma longitud que keys
+     * @return el número de claves encontradas
+     * @throws IllegalArgumentException si los arrays no tienen la misma longitud
+     */
+    @Override
+    public int getAll(K[] keys, V[] values) {
+        if (keys.length != values.length) throw new IllegalArgumentException("keys y values deben tener la misma longitud");
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            TableEntry<K, V> entry = getEntry(keys[i]);
+            values[i] = (entry == null) ? null : entry.value;
+            if (entry != null) found++;
+        }
+        return found;
+    }
     /**
      * Retorna el número de entradas en la tabla hash.
      *
@@ -217,9 +617,11 @@ public class HashTable<K, V> implements Dictionary<K, V> {
     /**
      * Elimina todas las entradas de la tabla hash.
      */
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public void clear(){
         table = (TableEntry<K, V>[])new TableEntry[table.length];
+        oldTable = null;
+        migrateIndex = 0;
         n = 0;
     }
     /**
@@ -230,6 +632,109 @@ public class HashTable<K, V> implements Dictionary<K, V> {
     public Iterator<K> iterator(){
         return new CIterator();
     }
+    /**
+     * Activa o desactiva el registro de estadísticas. Al activarlo los contadores empiezan de cero.
+     *
+     * @param enabled true para registrar estadísticas, false para dejar de hacerlo
+     */
+    public void setStatsEnabled(boolean enabled){
+        stats = enabled ? new DictionaryStats.Recorder() : null;
+    }
+    /**
+     * Retorna una instantánea de las estadísticas de la tabla y la emite como evento JFR.
+     * El histograma cuenta cuántas cubetas tienen cada longitud de cadena; las cubetas
+     * pendientes de migrar se cuentan con su longitud en la tabla antigua.
+     *
+     * @return la instantánea, o null si las estadísticas están desactivadas
+     */
+    public DictionaryStats stats(){
+        if (stats == null) return null;
+        int[] histogram = new int[DictionaryStats.HISTOGRAM_SIZE];
+        for (TableEntry<K, V> head : table) DictionaryStats.count(histogram, chainLength(head));
+        if (oldTable != null) {
+            for (int i = migrateIndex; i < oldTable.length; i++) DictionaryStats.count(histogram, chainLength(oldTable[i]));
+        }
+        return new DictionaryStats(getClass().getSimpleName(), n, table.length, histogram, stats);
+    }
+    /**
+     * Retorna el número de entradas de una cubeta, tanto si es una lista como un árbol.
+     */
+    private static int chainLength(TableEntry<?, ?> head){
+        if (head instanceof TreeBin) return ((TreeBin<?, ?>) head).count;
+        int length = 0;
+        for (TableEntry<?, ?> e = head; e != null; e = e.next) length++;
+        return length;
+    }
+    /**
+     * Retorna un Spliterator sobre las claves que se divide por rangos de cubetas de la tabla.
+     * Si hay una migración en curso se termina antes, para recorrer una sola tabla. Como el
+     * iterador, no admite modificaciones de la tabla durante el recorrido.
+     *
+     * @return un Spliterator DISTINCT sobre las claves, SIZED antes de dividirse
+     */
+    @Override
+    public Spliterator<K> spliterator(){
+        while (oldTable != null) migrateBucket();
+        return new CSpliterator<>(table, 0, table.length, n, true);
+    }
+    /**
+     * Clase interna que implementa un Spliterator sobre un rango de cubetas [index, fence).
+     * Al dividirse entrega la primera mitad del rango; el tamaño de cada mitad se estima
+     * como la mitad del total, porque las cubetas no guardan cuántas entradas tienen, así que
+     * tras la primera división ninguna de las dos mitades es SIZED.
+     */
+    private static final class CSpliterator<K, V> implements Spliterator<K>{
+        private final TableEntry<K, V>[] buckets;
+        private int table_index;
+        private final int fence;
+        private long estimate;
+        private boolean exact;
+        private TableEntry<K, V> current;
+
+        CSpliterator(TableEntry<K, V>[] buckets, int table_index, int fence, long estimate, boolean exact) {
+            this.buckets = buckets;
+            this.table_index = table_index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+        @Override
+        public boolean tryAdvance(Consumer<? super K> action) {
+            while (current == null) {
+                if (table_index >= fence) return false;
+                current = chainOf(buckets[table_index++]);
+            }
+            K key = current.key;
+            current = current.next;
+            action.accept(key);
+            return true;
+        }
+        @Override
+        public void forEachRemaining(Consumer<? super K> action) {
+            for (TableEntry<K, V> entry = current; entry != null; entry = entry.next) action.accept(entry.key);
+            current = null;
+            for (; table_index < fence; table_index++) {
+                for (TableEntry<K, V> entry = chainOf(buckets[table_index]); entry != null; entry = entry.next) action.accept(entry.key);
+            }
+        }
+        @Override
+        public Spliterator<K> trySplit() {
+            int mid = (table_index + fence) >>> 1;
+            if (table_index >= mid || current != null) return null;
+            CSpliterator<K, V> prefix = new CSpliterator<>(buckets, table_index, mid, estimate >>>= 1, false);
+            table_index = mid;
+            exact = false;
+            return prefix;
+        }
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+        @Override
+        public int characteristics() {
+            return (exact ? Spliterator.SIZED : 0) | Spliterator.DISTINCT;
+        }
+    }
     /**
      * Retorna una representación de cadena de la tabla hash.
      *
@@ -238,8 +743,26 @@ public class HashTable<K, V> implements Dictionary<K, V> {
     public String toString() {
         if (n == 0) return "[]";
         StringBuilder result = new StringBuilder("[\n");
-        for (TableEntry<K, V> entry : table) {
+        appendBuckets(result, table, 0);
+        if (oldTable != null) {
+            result.append("    -- pendientes de migrar --\n");
+            appendBuckets(result, oldTable, migrateIndex);
+        }
+        result.append("]");
+        return result.toString();
+    }
+    /**
+     * Añade al StringBuilder las cadenas de las cubetas a partir del índice indicado.
+     *
+     * @param result el StringBuilder donde construir la cadena
+     * @param buckets la tabla a representar
+     * @param from el primer índice a representar
+     */
+    private void appendBuckets(StringBuilder result, TableEntry<K, V>[] buckets, int from) {
+        for (int i = from; i < buckets.length; i++) {
+            TableEntry<K, V> entry = chainOf(buckets[i]);
             result.append("    ");
+            if (buckets[i] instanceof TreeBin) result.append("árbol: ");
             while (entry != null) {
                 result.append("(")
                         .append(entry.key).append(":").append(entry.value)
@@ -248,43 +771,94 @@ public class HashTable<K, V> implements Dictionary<K, V> {
             }
             result.append("null,\n");
         }
-        result.append("]");
-        return result.toString();
     }
     /**
-     * Calcula el índice hash para la clave especificada.
+     * Calcula el código hash dispersado de la clave especificada según la estrategia de la tabla.
      *
-     * @param key la clave para la cual se calculará el índice hash
-     * @return el índice hash calculado para la clave especificada
+     * @param key la clave para la cual se calculará el código hash
+     * @return el código hash dispersado de la clave especificada
      */
     private int hash(K key){
-        return Math.abs(key.hashCode()) % table.length;
+        return strategy.hash(key);
+    }
+    /**
+     * Calcula el índice de la cubeta para un código hash en una tabla de la longitud indicada,
+     * que es potencia de dos. Al duplicar la tabla, la cubeta j se reparte entre j y j + length.
+     *
+     * @param h el código hash dispersado
+     * @param length la longitud de la tabla
+     * @return el índice de la cubeta
+     */
+    private static int indexFor(int h, int length){
+        return h & (length - 1);
+    }
+    /**
+     * Finalizador de 32 bits de MurmurHash3.
+     *
+     * @param h el código hash a mezclar
+     * @return el código hash mezclado
+     */
+    private static int mix(int h){
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+    /**
+     * Retorna la menor potencia de dos mayor o igual que la capacidad pedida.
+     *
+     * @param capacity la capacidad pedida
+     * @return la capacidad real de la tabla
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= 1) return 1;
+        return Integer.highestOneBit(capacity - 1) << 1;
     }
     /**
      * Redimensiona la tabla hash al nuevo tamaño especificado.
+     * En modo incremental solo se reserva la nueva tabla y las entradas se trasladan
+     * poco a poco en {@link #migrateStep()}; en otro caso se trasladan todas ahora.
      *
      * @param capacity el nuevo tamaño de la tabla hash
      */
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private void resize(int capacity){
-        HashTable<K, V> new_table = new HashTable<>(capacity);
-        for (TableEntry<K, V> entry:table){
-            new_table.put(entry.key, entry.value);
+        long start = (stats != null) ? System.nanoTime() : 0;
+        while (oldTable != null) migrateBucket();
+        int oldCapacity = table.length;
+        oldTable = table;
+        migrateIndex = 0;
+        table = (TableEntry<K, V>[]) new TableEntry[capacity];
+        if (!incremental) {
+            while (oldTable != null) migrateBucket();
+        }
+        if (stats != null) stats.recordResize(getClass().getSimpleName(), oldCapacity, capacity, n, System.nanoTime() - start);
+    }
+    /**
+     * Traslada a la nueva tabla, como mucho, MIGRATION_STEP cubetas de la tabla antigua.
+     * No hace nada si no hay una migración en curso.
+     */
+    private void migrateStep(){
+        if (oldTable == null) return;
+        long start = (stats != null) ? System.nanoTime() : 0;
+        for (int i = 0; i < MIGRATION_STEP && oldTable != null; i++) migrateBucket();
+        if (stats != null) stats.recordMigration(System.nanoTime() - start);
+    }
+    /**
+     * Traslada a la nueva tabla la siguiente cubeta pendiente de la tabla antigua.
+     * Las entradas se copian en lugar de reenlazarse para que un iterador que esté
+     * recorriendo la cadena antigua pueda terminarla.
+     */
+    private void migrateBucket(){
+        for (TableEntry<K, V> entry = chainOf(oldTable[migrateIndex]); entry != null; entry = entry.next) {
+            addEntry(table, entry.hash, entry.key, entry.value);
+        }
+        oldTable[migrateIndex] = null;
+        if (++migrateIndex == oldTable.length) {
+            oldTable = null;
+            migrateIndex = 0;
         }
-        this.table = new_table.table;
     }
 }
-
-Node<Integer> head;
-head != head.val;
-
-int[][] table;
-for (int[] elemento : table[0]) {}
-
-HashMap<Integer, String> map;
-map != map.table;
-
-Entry<K,V>[] table;
-
-for (Entry<K,V> e : map.table) {
-
-        }
\ No newline at end of file
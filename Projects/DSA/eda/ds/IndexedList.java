@@ -0,0 +1,366 @@
+package eda.ds;
+
+import eda.adt.List;
+import eda.exceptions.WrongIndexException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+/**<h3>IndexedList - Lista con índice secundario de valores
+ * </h3>
+ * Implementación de la interfaz List pensada para consultar a menudo search(data) sobre listas
+ * largas. Los elementos se guardan en un árbol AVL ordenado por posición (cada nodo conoce el
+ * tamaño de su subárbol y a su padre), y opcionalmente en un índice secundario que asocia cada
+ * valor con los nodos que lo contienen.
+ * <p>
+ * El índice no guarda posiciones, que cambiarían con cada inserción o eliminación anterior, sino
+ * los propios nodos. La posición de un nodo se calcula en O(log N) subiendo hasta la raíz y
+ * sumando los tamaños de los subárboles izquierdos que quedan a su izquierda. Para un valor que
+ * aparece una sola vez el índice guarda directamente su nodo; si aparece varias veces, un TreeSet
+ * de sus nodos ordenados por posición, cuyo primer elemento es la primera aparición. Como
+ * insertar o eliminar otros elementos nunca cambia el orden relativo de dos nodos, esos TreeSet
+ * siguen ordenados sin necesidad de actualizarlos.
+ * <p>
+ * Memoria frente a velocidad: con el índice (constructor por defecto) cada valor distinto ocupa
+ * además una entrada de la HashTable, y cada valor repetido un TreeSet con una entrada por
+ * aparición; a cambio search es O(log N). Con new IndexedList&lt;&gt;(false) no se reserva ningún
+ * índice y search recorre la lista, pero insert, delete y get siguen siendo O(log N).
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>insert: O(log N) más, con índice, O(log D · log N), donde D es el número de
+ *     apariciones del valor insertado.</li>
+ *     <li>delete: O(log N) más, con índice, O(log D · log N).</li>
+ *     <li>get: O(log N).</li>
+ *     <li>search: O(log N) con índice; O(N) sin él.</li>
+ * </ul>
+ * Los elementos null se admiten pero no se indexan; search(null) retorna -1, como en ListImpl.
+ *
+ * @param <E> el tipo de elementos que se almacenan en la lista
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 1 - Estructuras de Datos y Algoritmos
+ * @see ListImpl
+ * @see HashTable
+ */
+public class IndexedList<E> implements List<E> {
+    private Node<E> root;
+    private final HashTable<E, Object> index;
+    private final Comparator<Node<E>> byPosition = Comparator.comparingInt(IndexedList::rank);
+
+    /**
+     * Constructor de la lista.
+     *
+     * @param indexed true para mantener el índice de valores, false para ahorrar su memoria
+     */
+    public IndexedList(boolean indexed) {
+        index = indexed ? new HashTable<>() : null;
+    }
+    public IndexedList() {
+        this(true);
+    }
+    /**
+     * Clase que representa un nodo del árbol de posiciones.
+     *
+     * @param <E> el tipo de dato almacenado en el nodo
+     */
+    private static class Node<E> {
+        E data;
+        Node<E> left, right, parent;
+        int height, size = 1;
+
+        Node(E data) {this.data = data;}
+    }
+    private static int size(Node<?> node) {return (node == null) ? 0 : node.size;}
+    private static int height(Node<?> node) {return (node == null) ? -1 : node.height;}
+    private static void update(Node<?> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+    private static <E> void setParent(Node<E> child, Node<E> parent) {
+        if (child != null) child.parent = parent;
+    }
+    /**
+     * Calcula la posición de un nodo subiendo hasta la raíz.
+     *
+     * @param node un nodo de la lista
+     * @return la posición del nodo
+     */
+    private static int rank(Node<?> node) {
+        int rank = size(node.left);
+        for (Node<?> aux = node; aux.parent != null; aux = aux.parent) {
+            if (aux == aux.parent.right) rank += size(aux.parent.left) + 1;
+        }
+        return rank;
+    }
+    /**
+     * Obtiene el nodo en la posición especificada de la lista.
+     *
+     * @param pos la posición del nodo a obtener, entre 0 y size - 1
+     * @return el nodo en la posición especificada
+     */
+    private Node<E> getNode(int pos) {
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (pos < leftSize) node = node.left;
+            else if (pos > leftSize) {
+                pos -= leftSize + 1;
+                node = node.right;
+            } else return node;
+        }
+    }
+    /**
+     * Inserta un elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición en la que insertar el elemento
+     * @param data el elemento a insertar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void insert(int pos, E data) throws WrongIndexException {
+        if (pos < 0 || pos > size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        Node<E> node = new Node<>(data);
+        root = insert(root, pos, node);
+        root.parent = null;
+        if (index != null && data != null) addToIndex(node);
+    }
+    private Node<E> insert(Node<E> node, int pos, Node<E> created) {
+        if (node == null) return created;
+        int leftSize = size(node.left);
+        if (pos <= leftSize) {
+            node.left = insert(node.left, pos, created);
+            node.left.parent = node;
+        } else {
+            node.right = insert(node.right, pos - leftSize - 1, created);
+            node.right.parent = node;
+        }
+        return balance(node);
+    }
+    /**
+     * Elimina el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o igual o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a eliminar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void delete(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        if (index != null) {
+            Node<E> node = getNode(pos);
+            if (node.data != null) removeFromIndex(node);
+        }
+        root = delete(root, pos);
+        setParent(root, null);
+    }
+    /**
+     * Elimina el nodo de la posición indicada del subárbol. El nodo se desenlaza en lugar de
+     * copiar el dato de su sucesor, porque el índice guarda referencias a los nodos.
+     */
+    private Node<E> delete(Node<E> node, int pos) {
+        int leftSize = size(node.left);
+        if (pos < leftSize) {
+            node.left = delete(node.left, pos);
+            setParent(node.left, node);
+        } else if (pos > leftSize) {
+            node.right = delete(node.right, pos - leftSize - 1);
+            setParent(node.right, node);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node<E> successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            successor.right = deleteMin(node.right);
+            setParent(successor.right, successor);
+            successor.left = node.left;
+            successor.left.parent = successor;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+    private Node<E> deleteMin(Node<E> node) {
+        if (node.left == null) return node.right;
+        node.left = deleteMin(node.left);
+        setParent(node.left, node);
+        return balance(node);
+    }
+    private Node<E> rotateLeft(Node<E> x) {
+        Node<E> y = x.right;
+        x.right = y.left;
+        setParent(x.right, x);
+        y.left = x;
+        x.parent = y;
+        update(x);
+        update(y);
+        return y;
+    }
+    private Node<E> rotateRight(Node<E> x) {
+        Node<E> y = x.left;
+        x.left = y.right;
+        setParent(x.left, x);
+        y.right = x;
+        x.parent = y;
+        update(x);
+        update(y);
+        return y;
+    }
+    /**
+     * Actualiza la altura y el tamaño del nodo y lo reequilibra si hace falta. El padre del
+     * nodo retornado lo fija quien lo enlaza.
+     */
+    private Node<E> balance(Node<E> node) {
+        update(node);
+        int balanceFactor = height(node.left) - height(node.right);
+        if (balanceFactor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+                node.left.parent = node;
+            }
+            return rotateRight(node);
+        }
+        if (balanceFactor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+                node.right.parent = node;
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+    /**
+     * Añade al índice un nodo que ya está en el árbol.
+     */
+    @SuppressWarnings("unchecked")
+    private void addToIndex(Node<E> node) {
+        Object entry = index.get(node.data);
+        if (entry == null) {
+            index.put(node.data, node);
+        } else if (entry instanceof Node) {
+            TreeSet<Node<E>> nodes = new TreeSet<>(byPosition);
+            nodes.add((Node<E>) entry);
+            nodes.add(node);
+            index.put(node.data, nodes);
+        } else {
+            ((TreeSet<Node<E>>) entry).add(node);
+        }
+    }
+    /**
+     * Quita del índice un nodo que todavía está en el árbol. Si el valor queda con una sola
+     * aparición, su TreeSet se sustituye por el nodo.
+     */
+    @SuppressWarnings("unchecked")
+    private void removeFromIndex(Node<E> node) {
+        Object entry = index.get(node.data);
+        if (entry instanceof Node) {
+            index.remove(node.data);
+        } else {
+            TreeSet<Node<E>> nodes = (TreeSet<Node<E>>) entry;
+            nodes.remove(node);
+            if (nodes.size() == 1) index.put(node.data, nodes.first());
+        }
+    }
+    /**
+     * Obtiene el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor o igual que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a obtener
+     * @return el elemento en la posición especificada
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public E get(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return getNode(pos).data;
+    }
+    /**
+     * Busca el índice de la primera aparición del elemento especificado en la lista.
+     * Si el elemento no se encuentra en la lista, retorna -1.
+     *
+     * @param data el elemento a buscar
+     * @return el índice de la primera aparición del elemento, o -1 si no se encuentra
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int search(E data) {
+        if (data == null) return -1;
+        if (index == null) {
+            int i = 0;
+            for (E e : this) {
+                if (e != null && e.equals(data)) return i;
+                i++;
+            }
+            return -1;
+        }
+        Object entry = index.get(data);
+        if (entry == null) return -1;
+        if (entry instanceof Node) return rank((Node<E>) entry);
+        return rank(((TreeSet<Node<E>>) entry).first());
+    }
+    /**
+     * Retorna un iterador sobre los elementos de la lista.
+     *
+     * @return un iterador sobre los elementos de la lista
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna el número de elementos en la lista.
+     *
+     * @return el número de elementos en la lista
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+    /**
+     * Retorna una representación en forma de cadena de la lista.
+     * La cadena contiene los elementos de la lista separados por flechas (->).
+     *
+     * @return una representación en forma de cadena de la lista
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        Iterator<E> it = iterator();
+        while (it.hasNext()) {
+            result.append(it.next());
+            if (it.hasNext()) result.append(" -> ");
+        }
+        return result.append("]").toString();
+    }
+    /**
+     * Clase interna privada que recorre el árbol en inorden, es decir, en orden de posición.
+     */
+    private class CIterator implements Iterator<E> {
+        private final Deque<Node<E>> stack = new ArrayDeque<>();
+
+        public CIterator() {
+            diveLeft(root);
+        }
+        private void diveLeft(Node<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<E> node = stack.pop();
+            diveLeft(node.right);
+            return node.data;
+        }
+    }
+}
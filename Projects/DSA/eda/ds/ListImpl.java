@@ -2,8 +2,12 @@ package eda.ds;
 
 import eda.adt.List;
 import eda.exceptions.WrongIndexException;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 /**<h3>ListImpl - Lista Doblemente Enlazada
  * </h3>
  * Implementación de una lista doblemente enlazada.
@@ -15,19 +19,36 @@ import java.util.NoSuchElementException;
  * La estructura de datos permite un acceso bidireccional a los elementos, lo que
  * facilita la navegación tanto hacia adelante como hacia atrás en la lista. Para ello
  * se ha hecho uso de dos nodos centinela head y tail.
+ * <p>
+ * Además, la lista recuerda el último nodo al que se ha accedido por posición y su índice (el
+ * "dedo"). Cada acceso posicional parte del más cercano entre head, tail y el dedo, de modo que
+ * los recorridos casi secuenciales (get(i), get(i + 1), insert(i + 2)...) cuestan O(1) por llamada.
+ * insert y delete dejan el dedo en el nodo insertado o en el anterior al eliminado, así que
+ * nunca apunta a un nodo que ya no está en la lista.
+ * <p>
+ * splice y concat no forman parte de la interfaz List porque trasladan los nodos de otra ListImpl
+ * sin copiarlos, y eso solo es posible entre dos listas con la misma representación. Para una
+ * List cualquiera, la operación equivalente es insertAll, que copia los elementos.
  * <p><p>
  Costes de los métodos:
  * <ul>
- *     <li>insert: O(min(k, N - k)), donde k es el índice de la posición de inserción
- *     y N es el tamaño actual de la lista. La inserción puede requerir recorrer
+ *     <li>insert: O(min(k, N - k, |k - f|)), donde k es el índice de la posición de inserción,
+ *     N es el tamaño actual de la lista y f la posición del dedo. La inserción puede requerir recorrer
  *     la lista hasta la posición deseada.</li>
- *     <li>delete: O(min(k, N - k)), la eliminación de un elemento se realiza en tiempo constante
+ *     <li>delete: O(min(k, N - k, |k - f|)), la eliminación de un elemento se realiza en tiempo constante
  *     al tener acceso directo al nodo anterior y al siguiente.</li>
- *     <li>get: O(min(k, N - k), donde k es la posición de inserción y n es el tamaño actual de la lista. La búsqueda del elemento
+ *     <li>get: O(min(k, N - k, |k - f|)), donde k es la posición de inserción y n es el tamaño actual de la lista. La búsqueda del elemento
  *     requerirá recorrer la lista hasta la posición deseada.</li>
  *     <li>search: O(min(k, N - k)), donde k es el índice de la posición de inserción
  *     y N es el tamaño actual de la lista. La búsqueda del elemento requerirá recorrer
  *     la lista hasta encontrarlo o llegar al final.</li>
+ *     <li>listIterator: O(min(k, N - k, |k - f|)) para situar el cursor; después, next, previous,
+ *     remove, set y add del cursor son O(1).</li>
+ *     <li>insertAll: O(min(k, N - k, |k - f|) + M), donde M es el tamaño de la otra lista.</li>
+ *     <li>splice: O(min(k, N - k, |k - f|)); los nodos se reenlazan sin copiarse.</li>
+ *     <li>concat: O(1).</li>
+ *     <li>subList: O(1); cada operación de la vista cuesta lo mismo que en la lista.</li>
+ *     <li>spliterator: O(1); cada división cuesta O(m) para un tramo de m elementos.</li>
  * </ul>
  * <p>
  * Complejidad espacial de todas las operaciones: O(1).
@@ -41,6 +62,9 @@ public class ListImpl <E> implements List<E>
 {
     private int size = 0;
     private final Node<E> head, tail;
+    private Node<E> finger;
+    private int fingerIndex;
+    private int modCount = 0;
     /**
      * Constructor de la lista que inicializa la cabeza y la cola con nodos nulos.
      * También establece el tamaño de la lista como 0.
@@ -51,6 +75,8 @@ public class ListImpl <E> implements List<E>
         head.next = tail;
         tail.prev = head;
         this.size = 0;
+        finger = head;
+        fingerIndex = -1;
     }
     /**
      * Clase que representa un nodo en una lista doblemente enlazada.
@@ -84,23 +110,36 @@ public class ListImpl <E> implements List<E>
     /**
      * Obtiene el nodo en la posición especificada de la lista.
      * Este método busca el nodo por su índice y retorna una referencia a él.
+     * El recorrido parte del extremo o del dedo que esté más cerca, y el dedo queda
+     * apuntando al nodo obtenido. La posición -1 corresponde a head y la posición size a tail.
      *
-     * @param pos la posición del nodo a obtener
+     * @param pos la posición del nodo a obtener, entre -1 y size
      * @return el nodo en la posición especificada
      */
     private Node<E> getNode(int pos) {
         Node<E> current;
-        if (pos < size / 2) {
-            current = head.next;
-            for (int i = 0; i < pos; i++) {
-                current = current.next;
-            }
+        int index;
+        int fromHead = pos + 1, fromTail = size - pos, fromFinger = Math.abs(pos - fingerIndex);
+        if (fromFinger <= fromHead && fromFinger <= fromTail) {
+            current = finger;
+            index = fingerIndex;
+        } else if (fromHead <= fromTail) {
+            current = head;
+            index = -1;
         } else {
-            current = tail.prev;
-            for (int i = size - 1; i > pos; i--) {
-                current = current.prev;
-            }
+            current = tail;
+            index = size;
         }
+        while (index < pos) {
+            current = current.next;
+            index++;
+        }
+        while (index > pos) {
+            current = current.prev;
+            index--;
+        }
+        finger = current;
+        fingerIndex = pos;
         return current;
     }
     /**
@@ -115,17 +154,15 @@ public class ListImpl <E> implements List<E>
     @Override
     public void insert(int pos, E data) throws WrongIndexException {
         if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
-        Node<E> prev;
-        if (pos == size) {
-            prev = tail.prev;
-        } else {
-            prev = getNode(pos - 1);
-        }
+        Node<E> prev = getNode(pos - 1);
         Node<E> succ = prev.next;
         Node<E> newNode = new Node<>(data, prev, succ);
         prev.next = newNode;
         succ.prev = newNode;
         size++;
+        modCount++;
+        finger = newNode;
+        fingerIndex = pos;
     }
     /**
      * Elimina el elemento en la posición especificada de la lista.
@@ -148,7 +185,9 @@ public class ListImpl <E> implements List<E>
             tail.prev = prev;
         }
         size--;
-
+        modCount++;
+        finger = prev;
+        fingerIndex = pos - 1;
     }
     /**
      * Obtiene el elemento en la posición especificada de la lista.
@@ -194,6 +233,129 @@ public class ListImpl <E> implements List<E>
     public Iterator<E> iterator() {
         return new CIterator();
     }
+    /**
+     * Inserta todos los elementos de otra lista a partir de la posición indicada. Los nodos
+     * nuevos se enlazan entre sí antes de tocar esta lista, y la cadena resultante se engancha
+     * de una sola vez tras localizar la posición.
+     *
+     * @param pos la posición en la que insertar el primer elemento
+     * @param other la lista cuyos elementos se insertan, que puede ser esta misma
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void insertAll(int pos, List<? extends E> other) throws WrongIndexException {
+        if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        Node<E> first = new Node<>(null), last = first;
+        int count = 0;
+        for (E data : other) {
+            last.next = new Node<>(data, last, null);
+            last = last.next;
+            count++;
+        }
+        if (count == 0) return;
+        link(getNode(pos - 1), first.next, last, count);
+    }
+    /**
+     * Traslada todos los nodos de otra ListImpl a esta, a partir de la posición indicada,
+     * reenlazando solo los extremos: no se crea ni se copia ningún nodo. La otra lista queda vacía.
+     *
+     * @param pos la posición en la que quedará el primer elemento trasladado
+     * @param other la lista cuyos nodos se trasladan
+     * @throws WrongIndexException si la posición es inválida
+     * @throws IllegalArgumentException si other es esta misma lista
+     */
+    public void splice(int pos, ListImpl<E> other) throws WrongIndexException {
+        if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        if (other == this) throw new IllegalArgumentException("No se puede trasladar una lista a sí misma");
+        if (other.size == 0) return;
+        Node<E> first = other.head.next, last = other.tail.prev;
+        int count = other.size;
+        other.head.next = other.tail;
+        other.tail.prev = other.head;
+        other.size = 0;
+        other.modCount++;
+        other.finger = other.head;
+        other.fingerIndex = -1;
+        link(getNode(pos - 1), first, last, count);
+    }
+    /**
+     * Traslada todos los nodos de otra ListImpl al final de esta en O(1). La otra lista queda vacía.
+     *
+     * @param other la lista cuyos nodos se trasladan
+     * @throws IllegalArgumentException si other es esta misma lista
+     */
+    public void concat(ListImpl<E> other) {
+        try {
+            splice(size, other);
+        } catch (WrongIndexException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    /**
+     * Engancha una cadena de nodos ya enlazados entre sí detrás del nodo indicado.
+     *
+     * @param prev el nodo tras el que se engancha la cadena
+     * @param first el primer nodo de la cadena
+     * @param last el último nodo de la cadena
+     * @param count el número de nodos de la cadena
+     */
+    private void link(Node<E> prev, Node<E> first, Node<E> last, int count) {
+        Node<E> succ = prev.next;
+        first.prev = prev;
+        last.next = succ;
+        prev.next = first;
+        succ.prev = last;
+        size += count;
+        modCount++;
+    }
+    /**
+     * Retorna una vista de las posiciones [from, to) de esta lista. Las operaciones sobre la
+     * vista se traducen a esta lista desplazando las posiciones, así que aprovechan el dedo, y
+     * los cambios se ven en ambas. Si esta lista se modifica por otro medio que no sea la vista,
+     * la siguiente operación de la vista lanza ConcurrentModificationException.
+     *
+     * @param from la primera posición incluida
+     * @param to la primera posición excluida
+     * @return la vista de las posiciones indicadas
+     * @throws WrongIndexException si las posiciones son inválidas
+     */
+    @Override
+    public List<E> subList(int from, int to) throws WrongIndexException {
+        if (from < 0 || from > size) throw new WrongIndexException("Index " + from + " is invalid. ");
+        if (to < from || to > size) throw new WrongIndexException("Index " + to + " is invalid. ");
+        return new SubList(from, to - from);
+    }
+    /**
+     * Retorna un cursor bidireccional situado al principio de la lista.
+     *
+     * @return un ListIterator sobre los elementos de la lista
+     */
+    public ListIterator<E> listIterator() {
+        return new CListIterator(head.next, 0);
+    }
+    /**
+     * Retorna un cursor bidireccional situado antes del elemento de la posición indicada,
+     * de modo que la primera llamada a next() devuelve ese elemento.
+     *
+     * @param pos la posición inicial del cursor, entre 0 y el tamaño de la lista
+     * @return un ListIterator sobre los elementos de la lista
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public ListIterator<E> listIterator(int pos) throws WrongIndexException {
+        if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return new CListIterator(getNode(pos), pos);
+    }
+    /**
+     * Retorna un Spliterator sobre los elementos de la lista que se divide por tamaño: cada
+     * división recorre la mitad de los nodos pendientes para encontrar el punto de corte y
+     * entrega la primera mitad, así que ambas partes conocen su tamaño exacto.
+     *
+     * @return un Spliterator ORDERED, SIZED y SUBSIZED sobre los elementos de la lista
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new CSpliterator(head.next, size);
+    }
     /**
      * Retorna el número de elementos en la lista.
      *
@@ -256,4 +418,270 @@ public class ListImpl <E> implements List<E>
             return data;
         }
     }
+    /**
+     * Clase interna privada que implementa un cursor bidireccional sobre los nodos de la lista.
+     * remove, set y add actúan directamente sobre los enlaces del nodo del cursor, en O(1).
+     * Si la lista se modifica por otro medio que no sea este cursor, la siguiente operación
+     * del cursor lanza ConcurrentModificationException.
+     */
+    private class CListIterator implements ListIterator<E>
+    {
+        private Node<E> next;
+        private int nextIndex;
+        private Node<E> lastReturned;
+        private int expectedModCount = modCount;
+        /**
+         * Constructor del cursor situado antes del nodo indicado.
+         *
+         * @param next el nodo que devolverá la primera llamada a next(), o tail
+         * @param nextIndex la posición de ese nodo
+         */
+        CListIterator(Node<E> next, int nextIndex) {
+            this.next = next;
+            this.nextIndex = nextIndex;
+        }
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+        @Override
+        public E next() {
+            checkForComodification();
+            if (!hasNext()) throw new NoSuchElementException();
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.data;
+        }
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+        @Override
+        public E previous() {
+            checkForComodification();
+            if (!hasPrevious()) throw new NoSuchElementException();
+            next = next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.data;
+        }
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+        /**
+         * Elimina de la lista el último elemento devuelto por next() o previous().
+         *
+         * @throws IllegalStateException si no se ha llamado a next() o previous(), o si después
+         * se ha llamado a remove() o add()
+         */
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned == null) throw new IllegalStateException();
+            lastReturned.prev.next = lastReturned.next;
+            lastReturned.next.prev = lastReturned.prev;
+            if (next == lastReturned) next = lastReturned.next;
+            else nextIndex--;
+            lastReturned = null;
+            size--;
+            modCount++;
+            expectedModCount = modCount;
+            finger = next.prev;
+            fingerIndex = nextIndex - 1;
+        }
+        /**
+         * Sustituye el último elemento devuelto por next() o previous().
+         *
+         * @param data el nuevo elemento
+         * @throws IllegalStateException si no se ha llamado a next() o previous(), o si después
+         * se ha llamado a remove() o add()
+         */
+        @Override
+        public void set(E data) {
+            checkForComodification();
+            if (lastReturned == null) throw new IllegalStateException();
+            lastReturned.data = data;
+        }
+        /**
+         * Inserta un elemento en la posición del cursor, delante del que devolvería next().
+         *
+         * @param data el elemento a insertar
+         */
+        @Override
+        public void add(E data) {
+            checkForComodification();
+            Node<E> newNode = new Node<>(data, next.prev, next);
+            next.prev.next = newNode;
+            next.prev = newNode;
+            nextIndex++;
+            lastReturned = null;
+            size++;
+            modCount++;
+            expectedModCount = modCount;
+            finger = newNode;
+            fingerIndex = nextIndex - 1;
+        }
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+    /**
+     * Clase interna privada que implementa una vista de un tramo de la lista.
+     */
+    private class SubList implements List<E>
+    {
+        private final int offset;
+        private int size;
+        private int expectedModCount = modCount;
+
+        SubList(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+        @Override
+        public void insert(int pos, E data) throws WrongIndexException {
+            checkForComodification();
+            if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+            ListImpl.this.insert(offset + pos, data);
+            size++;
+            expectedModCount = modCount;
+        }
+        @Override
+        public void insertAll(int pos, List<? extends E> other) throws WrongIndexException {
+            checkForComodification();
+            if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+            int before = ListImpl.this.size;
+            ListImpl.this.insertAll(offset + pos, other);
+            size += ListImpl.this.size - before;
+            expectedModCount = modCount;
+        }
+        @Override
+        public void delete(int pos) throws WrongIndexException {
+            checkForComodification();
+            if (pos < 0 || pos >= size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+            ListImpl.this.delete(offset + pos);
+            size--;
+            expectedModCount = modCount;
+        }
+        @Override
+        public E get(int pos) throws WrongIndexException {
+            checkForComodification();
+            if (pos < 0 || pos >= size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+            return getNode(offset + pos).data;
+        }
+        @Override
+        public int search(E data) {
+            checkForComodification();
+            Node<E> current = getNode(offset);
+            for (int i = 0; i < size; i++) {
+                if (current.data != null && current.data.equals(data)) return i;
+                current = current.next;
+            }
+            return -1;
+        }
+        @Override
+        public Iterator<E> iterator() {
+            checkForComodification();
+            return new Iterator<>() {
+                private Node<E> current = getNode(offset);
+                private int remaining = size;
+
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+                public E next() {
+                    checkForComodification();
+                    if (!hasNext()) throw new NoSuchElementException();
+                    E data = current.data;
+                    current = current.next;
+                    remaining--;
+                    return data;
+                }
+            };
+        }
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder("[");
+            Iterator<E> it = iterator();
+            while (it.hasNext()) {
+                result.append(it.next());
+                if (it.hasNext()) result.append(" -> ");
+            }
+            return result.append("]").toString();
+        }
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+    /**
+     * Clase interna privada que implementa un Spliterator sobre un tramo de nodos consecutivos.
+     * Si la lista se modifica durante el recorrido se lanza ConcurrentModificationException.
+     */
+    private class CSpliterator implements Spliterator<E>
+    {
+        private static final int MIN_SPLIT = 1024;
+        private Node<E> current;
+        private int remaining;
+        private final int expectedModCount = modCount;
+
+        CSpliterator(Node<E> current, int remaining) {
+            this.current = current;
+            this.remaining = remaining;
+        }
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (remaining == 0) return false;
+            E data = current.data;
+            current = current.next;
+            remaining--;
+            action.accept(data);
+            checkForComodification();
+            return true;
+        }
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            for (; remaining > 0; remaining--) {
+                action.accept(current.data);
+                current = current.next;
+            }
+            checkForComodification();
+        }
+        /**
+         * Entrega la primera mitad de los nodos pendientes y se queda con la segunda.
+         *
+         * @return un Spliterator sobre la primera mitad, o null si quedan menos de 2 * MIN_SPLIT
+         */
+        @Override
+        public Spliterator<E> trySplit() {
+            if (remaining < 2 * MIN_SPLIT) return null;
+            checkForComodification();
+            int half = remaining / 2;
+            Spliterator<E> prefix = new CSpliterator(current, half);
+            for (int i = 0; i < half; i++) current = current.next;
+            remaining -= half;
+            return prefix;
+        }
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
 }
@@ -0,0 +1,338 @@
+package eda.ds;
+import eda.adt.Dictionary;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+/**<h3>LongLongHashTable - Tabla hash con claves y valores long primitivos
+ * </h3>
+ * Especialización de HashTable para claves y valores de tipo long. Implementa
+ * Dictionary&lt;Long, Long&gt;, por lo que puede sustituir a una HashTable&lt;Long, Long&gt;, pero
+ * además ofrece sobrecargas de put, get, remove y contains que reciben y devuelven long sin crear
+ * ningún Long. Como un long no puede ser null, las sobrecargas primitivas devuelven NO_VALUE
+ * (0) cuando la clave no está; si 0 es un valor válido hay que usar contains o getOrDefault.
+ * <p>
+ * Las claves se guardan en un array de long y los valores en un array paralelo, con
+ * direccionamiento abierto y sondeo lineal. La clave 0 se reserva para marcar las posiciones
+ * libres; si se inserta, se guarda aparte en hasZeroKey / zeroValue. El borrado desplaza hacia
+ * atrás las claves siguientes del grupo, por lo que no se necesitan lápidas. El índice se
+ * calcula mezclando los bits de la clave en lugar de llamar a hashCode(), de modo que las
+ * claves secuenciales no se agrupan.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(1) en promedio, con un peor caso de O(n) si se produce un rehashing.</li>
+ *     <li>get: O(1) en promedio.</li>
+ *     <li>remove: O(1) en promedio.</li>
+ *     <li>contains: O(1) en promedio.</li>
+ *     <li>size: O(1).</li>
+ *     <li>isEmpty: O(1).</li>
+ *     <li>clear: O(1).</li>
+ *     <li>forEach: O(n), donde n es la capacidad de la tabla, sin reservar memoria.</li>
+ * </ul>
+ *
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see Dictionary
+ * @see HashTable
+ */
+public class LongLongHashTable implements Dictionary<Long, Long> {
+    public static final long NO_VALUE = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private long[] keys;
+    private long[] values;
+    private boolean hasZeroKey;
+    private long zeroValue;
+    private int mask;
+    private int n = 0;
+    public LongLongHashTable(int capacity){
+        allocate(tableSizeFor(capacity));
+    }
+    public LongLongHashTable(){
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Acción que recibe cada par clave-valor de la tabla sin envolver la clave ni el valor.
+     */
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+    /**
+     * Clase interna que implementa el iterador para la tabla hash.
+     * Es la vía del interfaz Dictionary, por lo que envuelve cada clave en un Long;
+     * para recorrer la tabla sin reservar memoria debe usarse forEach(LongLongConsumer).
+     */
+    private class CIterator implements Iterator<Long> {
+        private int index;
+        private boolean zeroPending;
+
+        public CIterator() {
+            this.index = -1;
+            this.zeroPending = hasZeroKey;
+            advance();
+        }
+        /**
+         * Avanza hasta la siguiente posición ocupada de la tabla.
+         */
+        private void advance() {
+            while (++index < keys.length && keys[index] == 0);
+        }
+        @Override
+        public boolean hasNext() {
+            return zeroPending || index < keys.length;
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (zeroPending) {
+                zeroPending = false;
+                return 0L;
+            }
+            long key = keys[index];
+            advance();
+            return key;
+        }
+    }
+    /**
+     * Reserva los arrays de la tabla con la capacidad indicada, que debe ser potencia de dos.
+     *
+     * @param capacity la nueva capacidad de la tabla
+     */
+    private void allocate(int capacity){
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+    /**
+     * Busca la posición que ocupa la clave especificada, que no puede ser 0.
+     *
+     * @param key la clave a buscar
+     * @return la posición de la clave en la tabla, o -1 si no se encuentra
+     */
+    private int indexOf(long key){
+        int index = mix(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+    /**
+     * Agrega un par clave-valor a la tabla hash.
+     *
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     * @return el valor anterior asociado a la clave, o NO_VALUE si la clave no estaba presente
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long result = zeroValue;
+            if (!hasZeroKey) this.n++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return result;
+        }
+        int index = mix(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                long result = values[index];
+                values[index] = value;
+                return result;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if ((double)++this.n/keys.length > LOAD_FACTOR) resize(keys.length*2);
+        return NO_VALUE;
+    }
+    public Long put(Long key, Long value) {
+        boolean present = contains(key.longValue());
+        long result = put(key.longValue(), value.longValue());
+        return present ? result : null;
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada en la tabla hash.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @return el valor asociado a la clave especificada, o NO_VALUE si la clave no se encuentra en la tabla
+     */
+    public long get(long key) {
+        return getOrDefault(key, NO_VALUE);
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada, o el valor por defecto indicado si no está.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @param defaultValue el valor a devolver si la clave no se encuentra en la tabla
+     * @return el valor asociado a la clave especificada, o defaultValue si no se encuentra
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) return hasZeroKey ? zeroValue : defaultValue;
+        int index = indexOf(key);
+        if (index < 0) return defaultValue;
+        else return values[index];
+    }
+    public Long get(Long key) {
+        if (!contains(key.longValue())) return null;
+        return get(key.longValue());
+    }
+    /**
+     * Elimina la entrada correspondiente a la clave especificada de la tabla hash.
+     *
+     * @param key la clave de la entrada que se desea eliminar
+     * @return el valor asociado a la clave especificada, o NO_VALUE si la clave no se encuentra en la tabla
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            long result = zeroValue;
+            if (hasZeroKey) this.n--;
+            hasZeroKey = false;
+            zeroValue = NO_VALUE;
+            return result;
+        }
+        int index = indexOf(key);
+        if (index < 0) return NO_VALUE;
+        long result = values[index];
+        shiftKeys(index);
+        this.n--;
+        return result;
+    }
+    public Long remove(Long key) {
+        if (!contains(key.longValue())) return null;
+        return remove(key.longValue());
+    }
+    /**
+     * Verifica si la tabla hash contiene una entrada con la clave especificada.
+     *
+     * @param key la clave cuya presencia se desea verificar en la tabla
+     * @return true si la tabla contiene una entrada con la clave especificada, false de lo contrario
+     */
+    public boolean contains(long key) {
+        if (key == 0) return hasZeroKey;
+        return indexOf(key) >= 0;
+    }
+    public boolean contains(Long key) {
+        return contains(key.longValue());
+    }
+    /**
+     * Retorna el número de entradas en la tabla hash.
+     *
+     * @return el número de entradas en la tabla hash
+     */
+    public int size(){
+        return this.n;
+    }
+    /**
+     * Verifica si la tabla hash está vacía.
+     *
+     * @return true si la tabla hash está vacía, false de lo contrario
+     */
+    public boolean isEmpty(){
+        return n==0;
+    }
+    /**
+     * Elimina todas las entradas de la tabla hash.
+     */
+    public void clear(){
+        allocate(keys.length);
+        hasZeroKey = false;
+        zeroValue = NO_VALUE;
+        n = 0;
+    }
+    /**
+     * Retorna un iterador sobre las claves en la tabla hash.
+     *
+     * @return un iterador sobre las claves en la tabla hash
+     */
+    public Iterator<Long> iterator(){
+        return new CIterator();
+    }
+    /**
+     * Aplica la acción indicada a cada par clave-valor de la tabla, sin reservar memoria.
+     *
+     * @param action la acción a aplicar
+     */
+    public void forEach(LongLongConsumer action) {
+        if (hasZeroKey) action.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept(keys[i], values[i]);
+        }
+    }
+    /**
+     * Retorna una representación de cadena de la tabla hash.
+     *
+     * @return una cadena que representa la tabla hash
+     */
+    public String toString() {
+        if (n == 0) return "[]";
+        StringBuilder result = new StringBuilder("[\n");
+        forEach((key, value) -> result.append("    (").append(key).append(":").append(value).append("),\n"));
+        result.append("]");
+        return result.toString();
+    }
+    /**
+     * Mezcla los bits de la clave para que las claves próximas entre sí caigan en
+     * posiciones alejadas de la tabla.
+     *
+     * @param key la clave
+     * @return el código hash dispersado de la clave
+     */
+    private static int mix(long key){
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    /**
+     * Retorna la menor potencia de dos mayor o igual que la capacidad pedida.
+     *
+     * @param capacity la capacidad pedida
+     * @return la capacidad real de la tabla
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= 1) return 2;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+    /**
+     * Vacía la posición indicada desplazando hacia atrás las claves siguientes del grupo
+     * que puedan ocuparla sin quedar antes de su posición ideal.
+     *
+     * @param pos la posición que queda libre
+     */
+    private void shiftKeys(int pos){
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long key;
+            while (true) {
+                if ((key = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = NO_VALUE;
+                    return;
+                }
+                int slot = mix(key) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = key;
+            values[last] = values[pos];
+        }
+    }
+    /**
+     * Redimensiona la tabla hash al nuevo tamaño especificado.
+     *
+     * @param capacity el nuevo tamaño de la tabla hash
+     */
+    private void resize(int capacity){
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            int index = mix(oldKeys[i]) & mask;
+            while (keys[index] != 0) index = (index + 1) & mask;
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package eda.ds;
+import eda.adt.Dictionary;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+/**<h3>MappedHashTable - Tabla hash persistente sobre un fichero proyectado en memoria
+ * </h3>
+ * Implementación de Dictionary cuyo contenido vive fuera del heap de Java, en un fichero
+ * proyectado en memoria (FileChannel / MappedByteBuffer). Un proceso que reabre el fichero
+ * puede atender get() de inmediato, sin deserializar ni reconstruir la tabla.
+ * <p>
+ * Disposición del fichero:
+ * <ul>
+ *     <li>Cabecera (HEADER_SIZE bytes): número mágico, versión, número de cubetas, número de
+ *     entradas, final del montículo y bytes muertos.</li>
+ *     <li>Cubetas: un array fijo de long con la dirección del primer registro de cada cadena
+ *     (0 si está vacía). El número de cubetas es potencia de dos.</li>
+ *     <li>Montículo: registros añadidos siempre al final, en segmentos de SEGMENT_SIZE bytes
+ *     que se proyectan a medida que hacen falta. Cada registro guarda el enlace al siguiente de
+ *     la cadena, el hash, las longitudes y los bytes de la clave y del valor, y nunca cruza el
+ *     límite de un segmento.</li>
+ * </ul>
+ * Las claves y los valores se convierten a bytes con un {@link Codec} que se elige al crear la
+ * tabla. El hash se calcula sobre los bytes de la clave, no con hashCode(), para que sea el
+ * mismo en cualquier proceso, y las claves se comparan byte a byte sin decodificarlas.
+ * <p>
+ * put sobre una clave existente y remove no reescriben el montículo: desenlazan el registro
+ * antiguo y lo contabilizan como bytes muertos. {@link #compact()} reescribe en un fichero nuevo
+ * solo los registros vivos, con el número de cubetas adecuado al tamaño actual, y lo sustituye.
+ * Como el array de cubetas está delante del montículo y no puede crecer donde está, put llama
+ * a compact() cuando el número de entradas supera LOAD_FACTOR veces el de cubetas; así las
+ * cubetas se duplican y las cadenas mantienen una longitud media constante. Mientras dura,
+ * esa compactación necesita en disco el espacio del fichero viejo y el del nuevo.
+ * La tabla no es segura ante caídas a mitad de una escritura ni para varios hilos.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(1) amortizado en promedio más la codificación de la clave y el valor; la
+ *     inserción que supera el factor de carga paga la compactación, O(n + b).</li>
+ *     <li>get: O(1) en promedio más la decodificación del valor.</li>
+ *     <li>remove: O(1) en promedio.</li>
+ *     <li>contains: O(1) en promedio.</li>
+ *     <li>size: O(1).</li>
+ *     <li>isEmpty: O(1).</li>
+ *     <li>clear: O(b), donde b es el número de cubetas.</li>
+ *     <li>compact: O(n + b), donde n es el número de entradas.</li>
+ *     <li>iterator: O(n + b).</li>
+ * </ul>
+ *
+ * @param <K> el tipo de las claves almacenadas en la tabla hash
+ * @param <V> el tipo de los valores asociados a las claves en la tabla hash
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see Dictionary
+ * @see HashTable
+ */
+public class MappedHashTable<K, V> implements Dictionary<K, V>, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAGIC = 0x45444148;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SEGMENT_SIZE = 1 << 26;
+    private static final int RECORD_HEADER = 20;
+    private static final int OFF_BUCKETS = 8, OFF_SIZE = 12, OFF_HEAP_END = 16, OFF_GARBAGE = 24;
+    private final Path file;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int buckets;
+    private long heapStart;
+    /**
+     * Abre la tabla guardada en el fichero indicado o, si no existe, la crea con la capacidad dada.
+     *
+     * @param file el fichero que respalda la tabla
+     * @param capacity el número inicial de cubetas si hay que crear el fichero; put lo amplía
+     *                 al superar el factor de carga, así que solo evita compactaciones tempranas
+     * @param keyCodec el codec de las claves
+     * @param valueCodec el codec de los valores
+     * @throws UncheckedIOException si no se puede abrir o proyectar el fichero
+     * @throws IllegalStateException si el fichero existe pero no es una tabla de esta versión
+     */
+    public MappedHashTable(Path file, int capacity, Codec<K> keyCodec, Codec<V> valueCodec){
+        this.file = file;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        try {
+            open(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    public MappedHashTable(Path file, Codec<K> keyCodec, Codec<V> valueCodec){
+        this(file, DEFAULT_CAPACITY, keyCodec, valueCodec);
+    }
+    /**
+     * Conversión de un tipo a bytes y de vuelta. Debe ser determinista: dos claves iguales
+     * han de producir los mismos bytes.
+     *
+     * @param <T> el tipo convertido
+     */
+    public interface Codec<T> {
+        byte[] encode(T value);
+        T decode(byte[] bytes);
+
+        Codec<String> STRING = new Codec<>() {
+            public byte[] encode(String value) {return value.getBytes(StandardCharsets.UTF_8);}
+            public String decode(byte[] bytes) {return new String(bytes, StandardCharsets.UTF_8);}
+        };
+        Codec<Integer> INTEGER = new Codec<>() {
+            public byte[] encode(Integer value) {return ByteBuffer.allocate(4).putInt(value).array();}
+            public Integer decode(byte[] bytes) {return ByteBuffer.wrap(bytes).getInt();}
+        };
+        Codec<Long> LONG = new Codec<>() {
+            public byte[] encode(Long value) {return ByteBuffer.allocate(8).putLong(value).array();}
+            public Long decode(byte[] bytes) {return ByteBuffer.wrap(bytes).getLong();}
+        };
+        Codec<byte[]> BYTES = new Codec<>() {
+            public byte[] encode(byte[] value) {return value;}
+            public byte[] decode(byte[] bytes) {return bytes;}
+        };
+    }
+    /**
+     * Clase interna que implementa el iterador para la tabla hash.
+     * Recorre las cubetas y sus cadenas decodificando cada clave.
+     */
+    private class CIterator implements Iterator<K> {
+        private long current;
+        private int table_index;
+
+        public CIterator() {
+            this.table_index = -1;
+            advance();
+        }
+        /**
+         * Avanza al siguiente registro de la tabla hash.
+         */
+        private void advance() {
+            if (current != 0) current = nextOf(current);
+            while (current == 0 && ++table_index < buckets) current = bucket(table_index);
+        }
+        @Override
+        public boolean hasNext() {
+            return current != 0;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = keyCodec.decode(readKey(current));
+            advance();
+            return key;
+        }
+    }
+    /**
+     * Abre o crea el fichero y proyecta la cabecera, las cubetas y los segmentos ya usados.
+     *
+     * @param capacity el número de cubetas si hay que crear el fichero
+     */
+    private void open(int capacity) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (exists) {
+            MappedByteBuffer probe = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (probe.getInt(0) != MAGIC || probe.getInt(4) != VERSION)
+                throw new IllegalStateException(file + " no es una MappedHashTable válida");
+            buckets = probe.getInt(OFF_BUCKETS);
+        } else {
+            buckets = tableSizeFor(capacity);
+        }
+        heapStart = HEADER_SIZE + (long) buckets * 8;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, heapStart);
+        segments.clear();
+        if (!exists) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(OFF_BUCKETS, buckets);
+            header.putInt(OFF_SIZE, 0);
+            header.putLong(OFF_HEAP_END, heapStart);
+            header.putLong(OFF_GARBAGE, 0);
+        }
+        long heapEnd = header.getLong(OFF_HEAP_END);
+        while (heapStart + (long) segments.size() * SEGMENT_SIZE < heapEnd) mapSegment();
+    }
+    /**
+     * Proyecta el siguiente segmento del montículo, ampliando el fichero si hace falta.
+     */
+    private void mapSegment() throws IOException {
+        long start = heapStart + (long) segments.size() * SEGMENT_SIZE;
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE));
+    }
+    /**
+     * Retorna el segmento que contiene la dirección indicada.
+     *
+     * @param address la dirección absoluta en el fichero
+     * @return el segmento proyectado
+     */
+    private MappedByteBuffer segment(long address){
+        return segments.get((int) ((address - heapStart) / SEGMENT_SIZE));
+    }
+    /**
+     * Retorna la posición de la dirección indicada dentro de su segmento.
+     *
+     * @param address la dirección absoluta en el fichero
+     * @return el desplazamiento dentro del segmento
+     */
+    private int offset(long address){
+        return (int) ((address - heapStart) % SEGMENT_SIZE);
+    }
+    private long bucket(int index) {return header.getLong(HEADER_SIZE + index * 8);}
+    private void setBucket(int index, long address) {header.putLong(HEADER_SIZE + index * 8, address);}
+    private long nextOf(long address) {return segment(address).getLong(offset(address));}
+    private void setNext(long address, long next) {segment(address).putLong(offset(address), next);}
+    private int hashOf(long address) {return segment(address).getInt(offset(address) + 8);}
+    private int keyLength(long address) {return segment(address).getInt(offset(address) + 12);}
+    private int valueLength(long address) {return segment(address).getInt(offset(address) + 16);}
+    private int recordSize(long address) {return RECORD_HEADER + keyLength(address) + valueLength(address);}
+    /**
+     * Lee los bytes de la clave del registro indicado.
+     *
+     * @param address la dirección del registro
+     * @return los bytes de la clave
+     */
+    private byte[] readKey(long address){
+        byte[] bytes = new byte[keyLength(address)];
+        segment(address).get(offset(address) + RECORD_HEADER, bytes);
+        return bytes;
+    }
+    /**
+     * Lee los bytes del valor del registro indicado.
+     *
+     * @param address la dirección del registro
+     * @return los bytes del valor
+     */
+    private byte[] readValue(long address){
+        byte[] bytes = new byte[valueLength(address)];
+        segment(address).get(offset(address) + RECORD_HEADER + keyLength(address), bytes);
+        return bytes;
+    }
+    /**
+     * Compara sin copiarla la clave del registro indicado con los bytes dados.
+     *
+     * @param address la dirección del registro
+     * @param key los bytes de la clave buscada
+     * @return true si son iguales, false de lo contrario
+     */
+    private boolean keyEquals(long address, byte[] key){
+        if (keyLength(address) != key.length) return false;
+        MappedByteBuffer segment = segment(address);
+        int start = offset(address) + RECORD_HEADER;
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(start + i) != key[i]) return false;
+        }
+        return true;
+    }
+    /**
+     * Añade un registro al final del montículo, saltando al siguiente segmento si no cabe en el actual.
+     *
+     * @return la dirección del nuevo registro
+     */
+    private long append(int hash, byte[] key, byte[] value, long next){
+        int size = RECORD_HEADER + key.length + value.length;
+        if (size > SEGMENT_SIZE) throw new IllegalArgumentException("Registro de " + size + " bytes mayor que un segmento");
+        long address = header.getLong(OFF_HEAP_END);
+        if (offset(address) + size > SEGMENT_SIZE && offset(address) != 0) {
+            address += SEGMENT_SIZE - offset(address);
+        }
+        try {
+            while (heapStart + (long) segments.size() * SEGMENT_SIZE < address + size) mapSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        MappedByteBuffer segment = segment(address);
+        int pos = offset(address);
+        segment.putLong(pos, next);
+        segment.putInt(pos + 8, hash);
+        segment.putInt(pos + 12, key.length);
+        segment.putInt(pos + 16, value.length);
+        segment.put(pos + RECORD_HEADER, key);
+        segment.put(pos + RECORD_HEADER + key.length, value);
+        header.putLong(OFF_HEAP_END, address + size);
+        return address;
+    }
+    /**
+     * Busca el registro de la clave en su cadena.
+     *
+     * @return la dirección del registro, o 0 si no se encuentra
+     */
+    private long find(int hash, byte[] key){
+        long address = bucket(hash & (buckets - 1));
+        while (address != 0) {
+            if (hashOf(address) == hash && keyEquals(address, key)) return address;
+            address = nextOf(address);
+        }
+        return 0;
+    }
+    /**
+     * Desenlaza de su cadena el registro de la clave y lo contabiliza como espacio muerto.
+     *
+     * @return la dirección del registro desenlazado, o 0 si no se encuentra
+     */
+    private long unlink(int hash, byte[] key){
+        return unlink(hash, key, 0);
+    }
+    /**
+     * Desenlaza el registro de la clave buscándolo en la cadena a partir del registro siguiente
+     * al indicado, o desde el principio de la cubeta si after es 0.
+     *
+     * @param after la dirección de un registro de la cadena que no se examina, o 0
+     * @return la dirección del registro desenlazado, o 0 si no se encuentra
+     */
+    private long unlink(int hash, byte[] key, long after){
+        int index = hash & (buckets - 1);
+        long prev = after, address = (after == 0) ? bucket(index) : nextOf(after);
+        while (address != 0 && !(hashOf(address) == hash && keyEquals(address, key))) {
+            prev = address;
+            address = nextOf(address);
+        }
+        if (address == 0) return 0;
+        if (prev == 0) setBucket(index, nextOf(address));
+        else setNext(prev, nextOf(address));
+        header.putLong(OFF_GARBAGE, header.getLong(OFF_GARBAGE) + recordSize(address));
+        return address;
+    }
+    /**
+     * Agrega un par clave-valor a la tabla hash. Si la clave ya existía, el registro antiguo
+     * se sustituye por uno nuevo al final del montículo. El registro nuevo se escribe y se
+     * enlaza al principio de la cadena antes de desenlazar el antiguo, de modo que si codificar
+     * el valor o escribir el registro falla, la tabla conserva el valor anterior.
+     *
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     * @return el valor anterior asociado a la clave, o null si la clave no estaba presente
+     */
+    public V put(K key, V value) {
+        byte[] k = keyCodec.encode(key);
+        byte[] v = valueCodec.encode(value);
+        int hash = hash(k);
+        int index = hash & (buckets - 1);
+        long address = append(hash, k, v, bucket(index));
+        setBucket(index, address);
+        long old = unlink(hash, k, address);
+        V result = (old == 0) ? null : valueCodec.decode(readValue(old));
+        if (old == 0) {
+            header.putInt(OFF_SIZE, header.getInt(OFF_SIZE) + 1);
+            if (size() > buckets * LOAD_FACTOR && buckets < MAX_CAPACITY) compact();
+        }
+        return result;
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada en la tabla hash.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    public V get(K key) {
+        byte[] k = keyCodec.encode(key);
+        long address = find(hash(k), k);
+        if (address == 0) return null;
+        else return valueCodec.decode(readValue(address));
+    }
+    /**
+     * Elimina la entrada correspondiente a la clave especificada de la tabla hash.
+     * El espacio del registro no se recupera hasta la siguiente compactación.
+     *
+     * @param key la clave de la entrada que se desea eliminar
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    public V remove(K key) {
+        byte[] k = keyCodec.encode(key);
+        long address = unlink(hash(k), k);
+        if (address == 0) return null;
+        header.putInt(OFF_SIZE, header.getInt(OFF_SIZE) - 1);
+        return valueCodec.decode(readValue(address));
+    }
+    /**
+     * Verifica si la tabla hash contiene una entrada con la clave especificada.
+     *
+     * @param key la clave cuya presencia se desea verificar en la tabla
+     * @return true si la tabla contiene una entrada con la clave especificada, false de lo contrario
+     */
+    public boolean contains(K key) {
+        byte[] k = keyCodec.encode(key);
+        return find(hash(k), k) != 0;
+    }
+    /**
+     * Retorna el número de entradas en la tabla hash.
+     *
+     * @return el número de entradas en la tabla hash
+     */
+    public int size(){
+        return header.getInt(OFF_SIZE);
+    }
+    /**
+     * Verifica si la tabla hash está vacía.
+     *
+     * @return true si la tabla hash está vacía, false de lo contrario
+     */
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+    /**
+     * Retorna los bytes del montículo ocupados por registros eliminados o sustituidos.
+     *
+     * @return los bytes que recuperaría una compactación
+     */
+    public long garbage(){
+        return header.getLong(OFF_GARBAGE);
+    }
+    /**
+     * Elimina todas las entradas de la tabla hash. El fichero conserva su tamaño;
+     * los segmentos se reutilizan en las siguientes inserciones.
+     */
+    public void clear(){
+        for (int i = 0; i < buckets; i++) setBucket(i, 0);
+        header.putInt(OFF_SIZE, 0);
+        header.putLong(OFF_HEAP_END, heapStart);
+        header.putLong(OFF_GARBAGE, 0);
+    }
+    /**
+     * Reescribe los registros vivos en un fichero nuevo, con tantas cubetas como pida el tamaño
+     * actual y el factor de carga, y lo sustituye por el actual.
+     *
+     * @throws UncheckedIOException si falla la escritura o la sustitución del fichero
+     */
+    public void compact(){
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        int capacity = Math.max(buckets, (int) Math.min(MAX_CAPACITY, (long) (size() / LOAD_FACTOR) + 1));
+        try {
+            Files.deleteIfExists(tmp);
+            try (MappedHashTable<byte[], byte[]> target = new MappedHashTable<>(tmp, capacity, Codec.BYTES, Codec.BYTES)) {
+                for (int i = 0; i < buckets; i++) {
+                    for (long address = bucket(i); address != 0; address = nextOf(address)) {
+                        byte[] key = readKey(address);
+                        int index = hashOf(address) & (target.buckets - 1);
+                        target.setBucket(index, target.append(hashOf(address), key, readValue(address), target.bucket(index)));
+                    }
+                }
+                target.header.putInt(OFF_SIZE, size());
+            }
+            close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * Fuerza la escritura en disco de las páginas modificadas.
+     */
+    public void flush(){
+        header.force();
+        for (MappedByteBuffer segment : segments) segment.force();
+    }
+    /**
+     * Vuelca los cambios al disco y cierra el fichero. La tabla no puede usarse después.
+     *
+     * @throws UncheckedIOException si falla el cierre del fichero
+     */
+    public void close(){
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * Retorna un iterador sobre las claves en la tabla hash.
+     *
+     * @return un iterador sobre las claves en la tabla hash
+     */
+    public Iterator<K> iterator(){
+        return new CIterator();
+    }
+    /**
+     * Retorna una representación de cadena de la tabla hash.
+     *
+     * @return una cadena que representa la tabla hash
+     */
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (K key : this) {
+            if (result.length() > 1) result.append(", ");
+            result.append("(").append(key).append(":").append(get(key)).append(")");
+        }
+        return result.append("]").toString();
+    }
+    /**
+     * Calcula el hash de los bytes de la clave, estable entre procesos.
+     *
+     * @param key los bytes de la clave
+     * @return el código hash dispersado
+     */
+    private static int hash(byte[] key){
+        int h = Arrays.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+    /**
+     * Retorna la menor potencia de dos mayor o igual que la capacidad pedida.
+     *
+     * @param capacity la capacidad pedida
+     * @return la capacidad real de la tabla
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= 1) return 2;
+        if (capacity >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,389 @@
+package eda.ds;
+
+import eda.adt.Dictionary;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+/**<h3>PersistentHashTable - Tabla hash persistente (HAMT)
+ * </h3>
+ * Tabla hash inmutable: put y remove no modifican la tabla sobre la que se llaman, sino que
+ * retornan una versión nueva que comparte con la anterior todos los nodos que no cambian. Guardar
+ * una instantánea cuesta O(1), y cualquier número de hilos puede leer versiones antiguas sin
+ * cerrojos mientras otro crea versiones nuevas, porque ningún nodo se modifica tras construirse.
+ * <p>
+ * Está implementada como un Hash Array Mapped Trie: un árbol de 32 ramas en el que cada nivel
+ * consume 5 bits del código hash (dispersado con {@link HashTable.HashStrategy#MURMUR3}). Cada
+ * nodo guarda un mapa de bits con las ramas ocupadas y un array compacto con solo esas ramas, de
+ * modo que un nodo con tres hijos ocupa tres posiciones y no 32. Cada rama ocupada contiene un
+ * par clave-valor o, si varias claves comparten los bits de ese nivel, un nodo hijo. Las claves
+ * con el mismo código hash completo se guardan juntas en un nodo de colisión.
+ * <p>
+ * Como sus métodos de modificación retornan la nueva versión, no puede implementar la interfaz
+ * Dictionary, pero ofrece las mismas operaciones de consulta, y {@link #of(Dictionary)} construye
+ * una versión a partir de un Dictionary.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(log32 n) en tiempo y en nodos nuevos, es decir, como mucho 7 niveles.</li>
+ *     <li>get: O(log32 n).</li>
+ *     <li>remove: O(log32 n) en tiempo y en nodos nuevos.</li>
+ *     <li>contains: O(log32 n).</li>
+ *     <li>size: O(1).</li>
+ *     <li>isEmpty: O(1).</li>
+ *     <li>iterator: O(n).</li>
+ * </ul>
+ *
+ * @param <K> el tipo de las claves almacenadas en la tabla hash
+ * @param <V> el tipo de los valores asociados a las claves en la tabla hash
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see HashTable
+ * @see PersistentList
+ */
+public final class PersistentHashTable<K, V> implements Iterable<K> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashTable<?, ?> EMPTY = new PersistentHashTable<>(new Node(0, new Object[0]), 0);
+    private final Node root;
+    private final int n;
+
+    private PersistentHashTable(Node root, int n) {
+        this.root = root;
+        this.n = n;
+    }
+    /**
+     * Retorna la tabla vacía.
+     *
+     * @return la tabla vacía
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashTable<K, V> empty() {
+        return (PersistentHashTable<K, V>) EMPTY;
+    }
+    /**
+     * Construye una tabla persistente con los pares de un Dictionary.
+     *
+     * @param dictionary el diccionario a copiar
+     * @return la tabla persistente con los mismos pares
+     */
+    public static <K, V> PersistentHashTable<K, V> of(Dictionary<K, V> dictionary) {
+        PersistentHashTable<K, V> result = empty();
+        for (K key : dictionary) result = result.put(key, dictionary.get(key));
+        return result;
+    }
+    /**
+     * Nodo inmutable del trie. En un nodo normal, bitmap indica qué ramas están ocupadas y
+     * array guarda dos posiciones por rama: clave y valor, o null y el nodo hijo. En un nodo de
+     * colisión (collision a true), array guarda pares clave-valor con el mismo código hash.
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] array;
+        final boolean collision;
+        final int hash;
+
+        Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+            this.collision = false;
+            this.hash = 0;
+        }
+        Node(int hash, Object[] array, boolean collision) {
+            this.bitmap = 0;
+            this.array = array;
+            this.collision = collision;
+            this.hash = hash;
+        }
+        /**
+         * Retorna la posición en array de la rama con el bit indicado.
+         */
+        int slot(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+    /**
+     * Indica si la última operación ha añadido o eliminado un par, para actualizar el tamaño.
+     */
+    private static final class Change {
+        boolean changed;
+    }
+    private static int hash(Object key) {
+        return HashTable.HashStrategy.MURMUR3.hash(key);
+    }
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+    private static Object[] copyWith(Object[] array, int index, Object value) {
+        Object[] copy = array.clone();
+        copy[index] = value;
+        return copy;
+    }
+    private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+        Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = key;
+        copy[index + 1] = value;
+        System.arraycopy(array, index, copy, index + 2, array.length - index);
+        return copy;
+    }
+    private static Object[] removePair(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 2, copy, index, array.length - index - 2);
+        return copy;
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int h = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (node.collision) {
+                if (node.hash != h) return null;
+                for (int i = 0; i < node.array.length; i += 2) {
+                    if (key.equals(node.array[i])) return (V) node.array[i + 1];
+                }
+                return null;
+            }
+            int bit = bit(h, shift);
+            if ((node.bitmap & bit) == 0) return null;
+            int slot = node.slot(bit);
+            Object k = node.array[slot];
+            if (k == null) node = (Node) node.array[slot + 1];
+            else return key.equals(k) ? (V) node.array[slot + 1] : null;
+        }
+    }
+    /**
+     * Verifica si la tabla contiene la clave especificada.
+     *
+     * @param key la clave cuya presencia se desea verificar
+     * @return true si la tabla contiene la clave, false de lo contrario
+     */
+    public boolean contains(K key) {
+        int h = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (node.collision) {
+                if (node.hash != h) return false;
+                for (int i = 0; i < node.array.length; i += 2) {
+                    if (key.equals(node.array[i])) return true;
+                }
+                return false;
+            }
+            int bit = bit(h, shift);
+            if ((node.bitmap & bit) == 0) return false;
+            int slot = node.slot(bit);
+            Object k = node.array[slot];
+            if (k == null) node = (Node) node.array[slot + 1];
+            else return key.equals(k);
+        }
+    }
+    /**
+     * Retorna una versión con el par clave-valor agregado o, si la clave ya estaba, con su valor
+     * sustituido. Si el valor no cambia se retorna esta misma versión.
+     *
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     * @return la nueva versión de la tabla
+     */
+    public PersistentHashTable<K, V> put(K key, V value) {
+        Change change = new Change();
+        Node newRoot = put(root, 0, hash(key), key, value, change);
+        if (newRoot == root) return this;
+        return new PersistentHashTable<>(newRoot, change.changed ? n + 1 : n);
+    }
+    private static Node put(Node node, int shift, int h, Object key, Object value, Change change) {
+        if (node.collision) {
+            if (node.hash == h) {
+                for (int i = 0; i < node.array.length; i += 2) {
+                    if (key.equals(node.array[i])) {
+                        if (node.array[i + 1] == value) return node;
+                        return new Node(h, copyWith(node.array, i + 1, value), true);
+                    }
+                }
+                change.changed = true;
+                return new Node(h, insertPair(node.array, node.array.length, key, value), true);
+            }
+            Node parent = new Node(bit(node.hash, shift), new Object[]{null, node});
+            return put(parent, shift, h, key, value, change);
+        }
+        int bit = bit(h, shift);
+        int slot = node.slot(bit);
+        if ((node.bitmap & bit) == 0) {
+            change.changed = true;
+            return new Node(node.bitmap | bit, insertPair(node.array, slot, key, value));
+        }
+        Object k = node.array[slot];
+        Object v = node.array[slot + 1];
+        if (k == null) {
+            Node child = put((Node) v, shift + BITS, h, key, value, change);
+            if (child == v) return node;
+            return new Node(node.bitmap, copyWith(node.array, slot + 1, child));
+        }
+        if (key.equals(k)) {
+            if (v == value) return node;
+            return new Node(node.bitmap, copyWith(node.array, slot + 1, value));
+        }
+        change.changed = true;
+        Node child = merge(shift + BITS, hash(k), k, v, h, key, value);
+        Object[] array = copyWith(node.array, slot, null);
+        array[slot + 1] = child;
+        return new Node(node.bitmap, array);
+    }
+    /**
+     * Crea el subárbol que contiene dos pares cuyos códigos hash coinciden hasta el nivel anterior.
+     */
+    private static Node merge(int shift, int h1, Object k1, Object v1, int h2, Object k2, Object v2) {
+        if (h1 == h2) return new Node(h1, new Object[]{k1, v1, k2, v2}, true);
+        int bit1 = bit(h1, shift), bit2 = bit(h2, shift);
+        if (bit1 == bit2) return new Node(bit1, new Object[]{null, merge(shift + BITS, h1, k1, v1, h2, k2, v2)});
+        if (Integer.compareUnsigned(bit1, bit2) < 0) return new Node(bit1 | bit2, new Object[]{k1, v1, k2, v2});
+        return new Node(bit1 | bit2, new Object[]{k2, v2, k1, v1});
+    }
+    /**
+     * Retorna una versión sin la clave especificada, o esta misma si la clave no estaba.
+     *
+     * @param key la clave a eliminar
+     * @return la nueva versión de la tabla
+     */
+    public PersistentHashTable<K, V> remove(K key) {
+        Change change = new Change();
+        Node newRoot = remove(root, 0, hash(key), key, change);
+        if (!change.changed) return this;
+        if (newRoot == null) return empty();
+        return new PersistentHashTable<>(newRoot, n - 1);
+    }
+    /**
+     * Elimina la clave del subárbol. Retorna el mismo nodo si la clave no estaba, null si el
+     * subárbol queda vacío, o un nodo nuevo. Un hijo que queda con un único par se sube al padre,
+     * para que la forma del trie dependa solo de las claves y no del orden de las operaciones.
+     */
+    private static Node remove(Node node, int shift, int h, Object key, Change change) {
+        if (node.collision) {
+            if (node.hash != h) return node;
+            for (int i = 0; i < node.array.length; i += 2) {
+                if (key.equals(node.array[i])) {
+                    change.changed = true;
+                    if (node.array.length == 2) return null;
+                    return new Node(h, removePair(node.array, i), true);
+                }
+            }
+            return node;
+        }
+        int bit = bit(h, shift);
+        if ((node.bitmap & bit) == 0) return node;
+        int slot = node.slot(bit);
+        Object k = node.array[slot];
+        Object v = node.array[slot + 1];
+        if (k == null) {
+            Node child = remove((Node) v, shift + BITS, h, key, change);
+            if (child == v) return node;
+            if (child == null) {
+                if (node.bitmap == bit) return null;
+                return new Node(node.bitmap ^ bit, removePair(node.array, slot));
+            }
+            if (child.array.length == 2 && child.array[0] != null) {
+                if (node.bitmap == bit && shift > 0) return child.collision ? child : new Node(bit(h, shift), child.array);
+                Object[] array = copyWith(node.array, slot, child.array[0]);
+                array[slot + 1] = child.array[1];
+                return new Node(node.bitmap, array);
+            }
+            return new Node(node.bitmap, copyWith(node.array, slot + 1, child));
+        }
+        if (!key.equals(k)) return node;
+        change.changed = true;
+        if (node.bitmap == bit) return null;
+        return new Node(node.bitmap ^ bit, removePair(node.array, slot));
+    }
+    /**
+     * Retorna el número de pares de esta versión.
+     *
+     * @return el número de pares
+     */
+    public int size() {
+        return n;
+    }
+    public boolean isEmpty() {
+        return n == 0;
+    }
+    /**
+     * Retorna un iterador sobre las claves de esta versión de la tabla.
+     *
+     * @return un iterador sobre las claves
+     */
+    @Override
+    public Iterator<K> iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna una representación de cadena de la tabla.
+     *
+     * @return una cadena con los pares de la tabla
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        Iterator<K> it = iterator();
+        while (it.hasNext()) {
+            K key = it.next();
+            result.append("(").append(key).append(":").append(get(key)).append(")");
+            if (it.hasNext()) result.append(", ");
+        }
+        return result.append("]").toString();
+    }
+    /**
+     * Clase interna que recorre el trie en profundidad con una pila explícita de nodos y
+     * posiciones pendientes.
+     */
+    private class CIterator implements Iterator<K> {
+        private final Deque<Node> nodes = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private K next;
+
+        public CIterator() {
+            nodes.push(root);
+            positions.push(0);
+            advance();
+        }
+        /**
+         * Avanza hasta la siguiente clave, bajando por los nodos hijo que encuentre.
+         */
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (!nodes.isEmpty()) {
+                Node node = nodes.peek();
+                int index = positions.pop();
+                if (index >= node.array.length) {
+                    nodes.pop();
+                    continue;
+                }
+                positions.push(index + 2);
+                Object k = node.array[index];
+                if (k != null) {
+                    next = (K) k;
+                    return;
+                }
+                nodes.push((Node) node.array[index + 1]);
+                positions.push(0);
+            }
+        }
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        @Override
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = next;
+            advance();
+            return key;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package eda.ds;
+
+import eda.adt.List;
+import eda.exceptions.WrongIndexException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+/**<h3>PersistentList - Lista persistente con estructura compartida
+ * </h3>
+ * Lista inmutable: insert, delete y set no modifican la lista sobre la que se llaman, sino que
+ * retornan una versión nueva. Las versiones comparten todos los nodos que no cambian, de modo
+ * que conservar una versión antigua (una instantánea) cuesta O(1) en lugar de copiar la lista.
+ * Como ningún nodo se modifica después de construirse y todos sus campos son final, cualquier
+ * número de hilos puede leer cualquier versión sin cerrojos mientras otro hilo crea versiones nuevas.
+ * <p>
+ * Internamente es un árbol AVL ordenado por posición en el que cada nodo guarda el tamaño de su
+ * subárbol. Una modificación copia solo los nodos del camino desde la raíz hasta la posición
+ * (O(log N) nodos nuevos) y reequilibra creando nodos en lugar de rotar los existentes.
+ * <p>
+ * Como sus métodos de modificación retornan la nueva versión, no puede implementar la interfaz
+ * List (cuyos insert y delete no retornan nada), pero ofrece las mismas operaciones con la misma
+ * semántica de WrongIndexException, y {@link #of(List)} construye una versión a partir de una List.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>insert: O(log N) en tiempo y en nodos nuevos.</li>
+ *     <li>delete: O(log N) en tiempo y en nodos nuevos.</li>
+ *     <li>set: O(log N) en tiempo y en nodos nuevos.</li>
+ *     <li>get: O(log N).</li>
+ *     <li>search: O(N).</li>
+ *     <li>of: O(N), construyendo directamente un árbol equilibrado.</li>
+ * </ul>
+ *
+ * @param <E> el tipo de elementos que se almacenan en la lista
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 1 - Estructuras de Datos y Algoritmos
+ * @see ListImpl
+ * @see PersistentHashTable
+ */
+public final class PersistentList<E> implements Iterable<E> {
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null);
+    private final Node<E> root;
+
+    private PersistentList(Node<E> root) {
+        this.root = root;
+    }
+    /**
+     * Retorna la lista vacía.
+     *
+     * @return la lista vacía
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+    /**
+     * Construye una lista persistente con los elementos de una List, en su orden.
+     *
+     * @param list la lista a copiar
+     * @return la lista persistente con los mismos elementos
+     */
+    public static <E> PersistentList<E> of(List<? extends E> list) {
+        Object[] items = new Object[list.size()];
+        int i = 0;
+        for (E data : list) items[i++] = data;
+        return new PersistentList<>(build(items, 0, items.length));
+    }
+    /**
+     * Clase que representa un nodo inmutable del árbol de posiciones.
+     *
+     * @param <E> el tipo de dato almacenado en el nodo
+     */
+    private static final class Node<E> {
+        final E data;
+        final Node<E> left, right;
+        final int height, size;
+
+        Node(E data, Node<E> left, Node<E> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+    private static int size(Node<?> node) {return (node == null) ? 0 : node.size;}
+    private static int height(Node<?> node) {return (node == null) ? -1 : node.height;}
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> build(Object[] items, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node<>((E) items[mid], build(items, from, mid), build(items, mid + 1, to));
+    }
+    /**
+     * Crea el nodo con el dato y los hijos indicados, reequilibrándolo con nodos nuevos si la
+     * diferencia de alturas de los hijos es 2.
+     */
+    private static <E> Node<E> balance(E data, Node<E> left, Node<E> right) {
+        int balanceFactor = height(left) - height(right);
+        if (balanceFactor > 1) {
+            if (height(left.left) < height(left.right)) {
+                Node<E> lr = left.right;
+                return new Node<>(lr.data, new Node<>(left.data, left.left, lr.left), new Node<>(data, lr.right, right));
+            }
+            return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+        }
+        if (balanceFactor < -1) {
+            if (height(right.right) < height(right.left)) {
+                Node<E> rl = right.left;
+                return new Node<>(rl.data, new Node<>(data, left, rl.left), new Node<>(right.data, rl.right, right.right));
+            }
+            return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+        }
+        return new Node<>(data, left, right);
+    }
+    /**
+     * Retorna una versión con el elemento insertado en la posición especificada.
+     * Si la posición es menor que 0 o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición en la que insertar el elemento
+     * @param data el elemento a insertar
+     * @return la nueva versión de la lista
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public PersistentList<E> insert(int pos, E data) throws WrongIndexException {
+        if (pos < 0 || pos > size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return new PersistentList<>(insert(root, pos, data));
+    }
+    private static <E> Node<E> insert(Node<E> node, int pos, E data) {
+        if (node == null) return new Node<>(data, null, null);
+        int leftSize = size(node.left);
+        if (pos <= leftSize) return balance(node.data, insert(node.left, pos, data), node.right);
+        return balance(node.data, node.left, insert(node.right, pos - leftSize - 1, data));
+    }
+    /**
+     * Retorna una versión sin el elemento de la posición especificada.
+     * Si la posición es menor que 0 o igual o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a eliminar
+     * @return la nueva versión de la lista
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public PersistentList<E> delete(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return new PersistentList<>(delete(root, pos));
+    }
+    private static <E> Node<E> delete(Node<E> node, int pos) {
+        int leftSize = size(node.left);
+        if (pos < leftSize) return balance(node.data, delete(node.left, pos), node.right);
+        if (pos > leftSize) return balance(node.data, node.left, delete(node.right, pos - leftSize - 1));
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<E> successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(successor.data, node.left, deleteMin(node.right));
+    }
+    private static <E> Node<E> deleteMin(Node<E> node) {
+        if (node.left == null) return node.right;
+        return balance(node.data, deleteMin(node.left), node.right);
+    }
+    /**
+     * Retorna una versión con el elemento de la posición especificada sustituido.
+     * Si la posición es menor que 0 o igual o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a sustituir
+     * @param data el nuevo elemento
+     * @return la nueva versión de la lista
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public PersistentList<E> set(int pos, E data) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return new PersistentList<>(set(root, pos, data));
+    }
+    private static <E> Node<E> set(Node<E> node, int pos, E data) {
+        int leftSize = size(node.left);
+        if (pos < leftSize) return new Node<>(node.data, set(node.left, pos, data), node.right);
+        if (pos > leftSize) return new Node<>(node.data, node.left, set(node.right, pos - leftSize - 1, data));
+        return new Node<>(data, node.left, node.right);
+    }
+    /**
+     * Obtiene el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor o igual que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a obtener
+     * @return el elemento en la posición especificada
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public E get(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size()) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (pos < leftSize) node = node.left;
+            else if (pos > leftSize) {
+                pos -= leftSize + 1;
+                node = node.right;
+            } else return node.data;
+        }
+    }
+    /**
+     * Busca el índice de la primera aparición del elemento especificado en la lista.
+     * Si el elemento no se encuentra en la lista, retorna -1.
+     *
+     * @param data el elemento a buscar
+     * @return el índice de la primera aparición del elemento, o -1 si no se encuentra
+     */
+    public int search(E data) {
+        int index = 0;
+        for (E e : this) {
+            if (e != null && e.equals(data)) return index;
+            index++;
+        }
+        return -1;
+    }
+    /**
+     * Retorna el número de elementos en la lista.
+     *
+     * @return el número de elementos en la lista
+     */
+    public int size() {
+        return size(root);
+    }
+    public boolean isEmpty() {
+        return root == null;
+    }
+    /**
+     * Retorna un iterador sobre los elementos de esta versión de la lista.
+     *
+     * @return un iterador sobre los elementos de la lista
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna una representación en forma de cadena de la lista.
+     * La cadena contiene los elementos de la lista separados por flechas (->).
+     *
+     * @return una representación en forma de cadena de la lista
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        Iterator<E> it = iterator();
+        while (it.hasNext()) {
+            result.append(it.next());
+            if (it.hasNext()) result.append(" -> ");
+        }
+        return result.append("]").toString();
+    }
+    /**
+     * Clase interna privada que recorre el árbol en inorden, es decir, en orden de posición.
+     */
+    private class CIterator implements Iterator<E> {
+        private final Deque<Node<E>> stack = new ArrayDeque<>();
+
+        public CIterator() {
+            diveLeft(root);
+        }
+        private void diveLeft(Node<E> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<E> node = stack.pop();
+            diveLeft(node.right);
+            return node.data;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package eda.ds;
+import eda.adt.Dictionary;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+/**<h3>RobinHoodHashTable - Direccionamiento abierto con sondeo Robin Hood
+ * </h3>
+ * Implementación de una tabla hash de direccionamiento abierto que resuelve las colisiones
+ * mediante sondeo lineal con la política Robin Hood y borrado por desplazamiento hacia atrás.
+ * Esta clase implementa la interfaz Dictionary y ofrece el mismo comportamiento que HashTable.
+ * <p>
+ * A diferencia de HashTable, no se reserva un nodo por entrada: las claves, los valores y los
+ * códigos hash se guardan en tres arrays paralelos. Una inserción no crea objetos (salvo al
+ * redimensionar) y una búsqueda recorre posiciones contiguas de memoria. En cada inserción,
+ * si la entrada que se está colocando está más lejos de su posición ideal que la residente,
+ * ambas se intercambian ("se roba al rico para dar al pobre"), de modo que la longitud de
+ * sondeo se mantiene acotada y con poca varianza. Al eliminar, las entradas siguientes del
+ * mismo grupo se desplazan una posición hacia atrás, por lo que no hacen falta lápidas.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(1) en promedio, con un peor caso de O(n) si se produce un rehashing.</li>
+ *     <li>get: O(1) en promedio. Una búsqueda fallida se detiene en cuanto la distancia
+ *     sondeada supera la de la entrada residente.</li>
+ *     <li>remove: O(1) en promedio.</li>
+ *     <li>contains: O(1) en promedio.</li>
+ *     <li>size: O(1).</li>
+ *     <li>isEmpty: O(1).</li>
+ *     <li>clear: O(1).</li>
+ *     <li>iterator: O(n), donde n es la capacidad de la tabla hash.</li>
+ * </ul>
+ * <p>
+ * La capacidad es siempre una potencia de dos, de modo que el índice se obtiene con una
+ * máscara en lugar de con el operador módulo. La tabla se duplica cuando el factor de carga
+ * supera el umbral predefinido (0.75).
+ * <p>
+ * Como HashTable, admite estadísticas opcionales ({@link #setStatsEnabled(boolean)} y
+ * {@link #stats()}); aquí el histograma cuenta la distancia de cada entrada a su posición ideal.
+ *
+ * @param <K> el tipo de las claves almacenadas en la tabla hash
+ * @param <V> el tipo de los valores asociados a las claves en la tabla hash
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see Dictionary
+ * @see HashTable
+ */
+public class RobinHoodHashTable<K, V> implements Dictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int mask;
+    private int n = 0;
+    private DictionaryStats.Recorder stats;
+    // Posiciones examinadas por la última llamada a indexOf.
+    private int lastProbes;
+    public RobinHoodHashTable(int capacity){
+        allocate(tableSizeFor(capacity));
+    }
+    public RobinHoodHashTable(){
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Clase interna que implementa el iterador para la tabla hash.
+     */
+    private class CIterator implements Iterator<K> {
+        private int index;
+
+        public CIterator() {
+            this.index = -1;
+            advance();
+        }
+        /**
+         * Avanza hasta la siguiente posición ocupada de la tabla.
+         */
+        private void advance() {
+            while (++index < keys.length && keys[index] == null);
+        }
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = keys[index];
+            advance();
+            return key;
+        }
+    }
+    /**
+     * Reserva los arrays de la tabla con la capacidad indicada, que debe ser potencia de dos.
+     *
+     * @param capacity la nueva capacidad de la tabla
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity){
+        keys = (K[]) new Object[capacity];
+        values = (V[]) new Object[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+    }
+    /**
+     * Busca la posición que ocupa la clave especificada y deja en lastProbes las posiciones examinadas.
+     *
+     * @param key la clave a buscar
+     * @return la posición de la clave en la tabla, o -1 si no se encuentra
+     */
+    private int indexOf(K key){
+        int h = hash(key);
+        int index = h & mask;
+        lastProbes = 0;
+        for (int dist = 0; keys[index] != null; dist++) {
+            if (probeDistance(index) < dist) return -1;
+            lastProbes++;
+            if (hashes[index] == h && keys[index].equals(key)) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+    /**
+     * Agrega un par clave-valor a la tabla hash.
+     *
+     * @param key la clave a agregar
+     * @param value el valor asociado a la clave
+     * @return el valor anterior asociado a la clave, o null si la clave no estaba presente
+     */
+    public V put(K key, V value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            V result = values[index];
+            values[index] = value;
+            return result;
+        }
+        if ((double)(this.n + 1)/keys.length > LOAD_FACTOR) resize(keys.length*2);
+        insert(hash(key), key, value);
+        this.n++;
+        return null;
+    }
+    /**
+     * Coloca una entrada que se sabe ausente, intercambiándola con las residentes
+     * que estén más cerca de su posición ideal.
+     *
+     * @param h el código hash ya dispersado de la clave
+     * @param key la clave a colocar
+     * @param value el valor asociado a la clave
+     */
+    private void insert(int h, K key, V value){
+        int index = h & mask;
+        for (int dist = 0; ; dist++) {
+            if (keys[index] == null) {
+                keys[index] = key;
+                values[index] = value;
+                hashes[index] = h;
+                return;
+            }
+            int resident = probeDistance(index);
+            if (resident < dist) {
+                K k = keys[index]; V v = values[index]; int rh = hashes[index];
+                keys[index] = key; values[index] = value; hashes[index] = h;
+                key = k; value = v; h = rh;
+                dist = resident;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    /**
+     * Obtiene el valor asociado a la clave especificada en la tabla hash.
+     *
+     * @param key la clave cuyo valor se desea obtener
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    public V get(K key) {
+        int index = indexOf(key);
+        if (stats != null) stats.recordGet(lastProbes);
+        if (index < 0) return null;
+        else return values[index];
+    }
+    /**
+     * Elimina la entrada correspondiente a la clave especificada de la tabla hash.
+     * Las entradas posteriores del mismo grupo se desplazan una posición hacia atrás.
+     *
+     * @param key la clave de la entrada que se desea eliminar
+     * @return el valor asociado a la clave especificada, o null si la clave no se encuentra en la tabla
+     */
+    public V remove(K key) {
+        int index = indexOf(key);
+        if (index < 0) return null;
+        V result = values[index];
+        int next = (index + 1) & mask;
+        while (keys[next] != null && probeDistance(next) > 0) {
+            keys[index] = keys[next];
+            values[index] = values[next];
+            hashes[index] = hashes[next];
+            index = next;
+            next = (next + 1) & mask;
+        }
+        keys[index] = null;
+        values[index] = null;
+        this.n--;
+        return result;
+    }
+    /**
+     * Verifica si la tabla hash contiene una entrada con la clave especificada.
+     *
+     * @param key la clave cuya presencia se desea verificar en la tabla
+     * @return true si la tabla contiene una entrada con la clave especificada, false de lo contrario
+     */
+    public boolean contains(K key) {
+        return indexOf(key) >= 0;
+    }
+    /**
+     * Retorna el número de entradas en la tabla hash.
+     *
+     * @return el número de entradas en la tabla hash
+     */
+    public int size(){
+        return this.n;
+    }
+    /**
+     * Verifica si la tabla hash está vacía.
+     *
+     * @return true si la tabla hash está vacía, false de lo contrario
+     */
+    public boolean isEmpty(){
+        return n==0;
+    }
+    /**
+     * Elimina todas las entradas de la tabla hash.
+     */
+    public void clear(){
+        allocate(keys.length);
+        n = 0;
+    }
+    /**
+     * Retorna un iterador sobre las claves en la tabla hash.
+     *
+     * @return un iterador sobre las claves en la tabla hash
+     */
+    public Iterator<K> iterator(){
+        return new CIterator();
+    }
+    /**
+     * Activa o desactiva el registro de estadísticas. Al activarlo los contadores empiezan de cero.
+     *
+     * @param enabled true para registrar estadísticas, false para dejar de hacerlo
+     */
+    public void setStatsEnabled(boolean enabled){
+        stats = enabled ? new DictionaryStats.Recorder() : null;
+    }
+    /**
+     * Retorna una instantánea de las estadísticas de la tabla y la emite como evento JFR.
+     * El histograma cuenta cuántas entradas están a cada distancia de su posición ideal.
+     *
+     * @return la instantánea, o null si las estadísticas están desactivadas
+     */
+    public DictionaryStats stats(){
+        if (stats == null) return null;
+        int[] histogram = new int[DictionaryStats.HISTOGRAM_SIZE];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) DictionaryStats.count(histogram, probeDistance(i));
+        }
+        return new DictionaryStats(getClass().getSimpleName(), n, keys.length, histogram, stats);
+    }
+    /**
+     * Retorna una representación de cadena de la tabla hash.
+     * Cada posición muestra su entrada y la distancia a su posición ideal.
+     *
+     * @return una cadena que representa la tabla hash
+     */
+    public String toString() {
+        if (n == 0) return "[]";
+        StringBuilder result = new StringBuilder("[\n");
+        for (int i = 0; i < keys.length; i++) {
+            result.append("    ");
+            if (keys[i] == null) result.append("null");
+            else result.append("(")
+                    .append(keys[i]).append(":").append(values[i])
+                    .append(" +").append(probeDistance(i)).append(")");
+            result.append(",\n");
+        }
+        result.append("]");
+        return result.toString();
+    }
+    /**
+     * Calcula el código hash dispersado de la clave. Se mezclan los bits altos con los bajos
+     * porque el índice solo usa los bits que deja pasar la máscara.
+     *
+     * @param key la clave para la cual se calculará el código hash
+     * @return el código hash dispersado
+     */
+    private int hash(K key){
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+    /**
+     * Retorna la distancia entre la posición indicada y la posición ideal de su entrada.
+     *
+     * @param index una posición ocupada de la tabla
+     * @return el número de pasos de sondeo de la entrada residente
+     */
+    private int probeDistance(int index){
+        return (index - (hashes[index] & mask)) & mask;
+    }
+    /**
+     * Retorna la menor potencia de dos mayor o igual que la capacidad pedida.
+     *
+     * @param capacity la capacidad pedida
+     * @return la capacidad real de la tabla
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= 1) return 2;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+    /**
+     * Redimensiona la tabla hash al nuevo tamaño especificado, recolocando cada entrada
+     * a partir de su código hash guardado.
+     *
+     * @param capacity el nuevo tamaño de la tabla hash
+     */
+    private void resize(int capacity){
+        long start = (stats != null) ? System.nanoTime() : 0;
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) insert(oldHashes[i], oldKeys[i], oldValues[i]);
+        }
+        if (stats != null) stats.recordResize(getClass().getSimpleName(), oldKeys.length, capacity, n, System.nanoTime() - start);
+    }
+}
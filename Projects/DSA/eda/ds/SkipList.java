@@ -0,0 +1,273 @@
+package eda.ds;
+
+import eda.adt.List;
+import eda.exceptions.WrongIndexException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+/**<h3>SkipList - Lista indexada sobre una lista con saltos
+ * </h3>
+ * Implementación de la interfaz List sobre una skip list indexable. Cada nodo tiene un número
+ * aleatorio de niveles (con probabilidad 1/4 de subir cada nivel) y, en cada nivel, un enlace al
+ * siguiente nodo de ese nivel junto con su anchura (span): cuántas posiciones de la lista salta
+ * ese enlace. Para llegar a la posición k se baja desde el nivel más alto avanzando mientras la
+ * suma de anchuras no pase de k, igual que una búsqueda por clave en una skip list ordenada.
+ * <p>
+ * Un enlace a null tiene como anchura la distancia desde su nodo hasta el final de la lista
+ * (la posición size), de modo que insertar y eliminar actualizan todas las anchuras con las
+ * mismas fórmulas, haya o no nodo siguiente.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>insert: O(log N) en promedio.</li>
+ *     <li>delete: O(log N) en promedio.</li>
+ *     <li>get: O(log N) en promedio.</li>
+ *     <li>search: O(N), recorriendo el nivel inferior.</li>
+ * </ul>
+ * <p>
+ * Complejidad espacial: O(N); cada nodo tiene 4/3 niveles de media. Los arrays de predecesores
+ * que usan insert y delete se reservan una sola vez con la lista.
+ *
+ * @param <E> el tipo de elementos que se almacenan en la lista
+ * @author Marcos del Amo Fernández
+ * @version Práctica 1 - Parte 1 - Estructuras de Datos y Algoritmos
+ * @see ListImpl
+ */
+public class SkipList<E> implements List<E> {
+    private static final int MAX_LEVEL = 16;
+    private final Node<E> head;
+    private final Node<E>[] update;
+    private final int[] rank = new int[MAX_LEVEL];
+    private int level = 1;
+    private int size = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SkipList() {
+        head = new Node<>(null, MAX_LEVEL);
+        // El enlace a null de head en el nivel 0 salta de la posición -1 al final (size = 0).
+        head.span[0] = 1;
+        update = (Node<E>[]) new Node[MAX_LEVEL];
+    }
+    /**
+     * Clase que representa un nodo de la skip list.
+     *
+     * @param <E> el tipo de dato almacenado en el nodo
+     */
+    private static class Node<E> {
+        E data;
+        final Node<E>[] next;
+        final int[] span;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node(E data, int levels) {
+            this.data = data;
+            this.next = (Node<E>[]) new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+    /**
+     * Sortea el número de niveles de un nodo nuevo: cada nivel adicional con probabilidad 1/4.
+     *
+     * @return un número de niveles entre 1 y MAX_LEVEL
+     */
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        int levels = 1;
+        while ((bits & 3) == 0 && levels < MAX_LEVEL) {
+            levels++;
+            bits >>>= 2;
+        }
+        return levels;
+    }
+    /**
+     * Busca, en cada nivel, el último nodo cuya posición es menor que pos. head tiene la
+     * posición -1.
+     *
+     * @param pos la posición buscada
+     * @param update recibe el predecesor de pos en cada nivel
+     * @param rank recibe la posición de cada predecesor
+     */
+    private void findPredecessors(int pos, Node<E>[] update, int[] rank) {
+        Node<E> x = head;
+        int index = -1;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && index + x.span[i] < pos) {
+                index += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+            rank[i] = index;
+        }
+    }
+    /**
+     * Obtiene el nodo en la posición especificada de la lista.
+     *
+     * @param pos la posición del nodo a obtener, entre 0 y size - 1
+     * @return el nodo en la posición especificada
+     */
+    private Node<E> getNode(int pos) {
+        Node<E> x = head;
+        int index = -1;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && index + x.span[i] <= pos) {
+                index += x.span[i];
+                x = x.next[i];
+            }
+            if (index == pos) return x;
+        }
+        return x;
+    }
+    /**
+     * Inserta un elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición en la que insertar el elemento
+     * @param data el elemento a insertar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void insert(int pos, E data) throws WrongIndexException {
+        if (pos < 0 || pos > size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        findPredecessors(pos, update, rank);
+        int levels = randomLevel();
+        for (; level < levels; level++) {
+            update[level] = head;
+            rank[level] = -1;
+            head.next[level] = null;
+            head.span[level] = size + 1;
+        }
+        Node<E> node = new Node<>(data, levels);
+        for (int i = 0; i < levels; i++) {
+            node.next[i] = update[i].next[i];
+            node.span[i] = rank[i] + update[i].span[i] + 1 - pos;
+            update[i].next[i] = node;
+            update[i].span[i] = pos - rank[i];
+        }
+        for (int i = levels; i < level; i++) update[i].span[i]++;
+        size++;
+    }
+    /**
+     * Elimina el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o igual o mayor que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a eliminar
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public void delete(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        findPredecessors(pos, update, rank);
+        Node<E> x = update[0].next[0];
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) level--;
+        size--;
+    }
+    /**
+     * Obtiene el elemento en la posición especificada de la lista.
+     * Si la posición es menor que 0 o mayor o igual que el tamaño de la lista,
+     * se lanza una excepción WrongIndexException.
+     *
+     * @param pos la posición del elemento a obtener
+     * @return el elemento en la posición especificada
+     * @throws WrongIndexException si la posición es inválida
+     */
+    @Override
+    public E get(int pos) throws WrongIndexException {
+        if (pos < 0 || pos >= size) throw new WrongIndexException("Index " + pos + " is invalid. ");
+        return getNode(pos).data;
+    }
+    /**
+     * Busca el índice de la primera aparición del elemento especificado en la lista.
+     * Si el elemento no se encuentra en la lista, retorna -1.
+     *
+     * @param data el elemento a buscar
+     * @return el índice de la primera aparición del elemento, o -1 si no se encuentra
+     */
+    @Override
+    public int search(E data) {
+        int index = 0;
+        for (Node<E> current = head.next[0]; current != null; current = current.next[0]) {
+            if (current.data != null && current.data.equals(data)) return index;
+            index++;
+        }
+        return -1;
+    }
+    /**
+     * Retorna un iterador sobre los elementos de la lista.
+     *
+     * @return un iterador sobre los elementos de la lista
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new CIterator();
+    }
+    /**
+     * Retorna el número de elementos en la lista.
+     *
+     * @return el número de elementos en la lista
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+    /**
+     * Retorna una representación en forma de cadena de la lista.
+     * La cadena contiene los elementos de la lista separados por flechas (->).
+     *
+     * @return una representación en forma de cadena de la lista
+     */
+    @Override
+    public String toString() {
+        if (size == 0) return "[]";
+        StringBuilder result = new StringBuilder("[");
+        for (Node<E> aux = head.next[0]; aux != null; aux = aux.next[0]) {
+            result.append(aux.data);
+            if (aux.next[0] != null) result.append(" -> ");
+        }
+        result.append("]");
+        return result.toString();
+    }
+    /**
+     * Clase interna privada que implementa un iterador sobre el nivel inferior de la lista.
+     */
+    private class CIterator implements Iterator<E> {
+        private Node<E> current;
+        /**
+         * Constructor del iterador que inicializa el nodo actual.
+         */
+        public CIterator() {
+            current = head.next[0];
+        }
+        /**
+         * Verifica si hay más elementos en la lista.
+         *
+         * @return true si hay más elementos, false de lo contrario
+         */
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+        /**
+         * Retorna el siguiente elemento en la lista.
+         *
+         * @return el siguiente elemento en la lista
+         * @throws NoSuchElementException si no hay más elementos en la lista
+         */
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E data = current.data;
+            current = current.next[0];
+            return data;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package eda.ds;
+
+import eda.adt.Dictionary;
+import eda.exceptions.WrongIndexException;
+import java.util.Iterator;
+/**<h3>SortedTable - Diccionario ordenado sobre un árbol AVL
+ * </h3>
+ * Diccionario cuyas claves se mantienen ordenadas en un AVL de pares clave-valor ordenados por
+ * la clave. Además de las operaciones de Dictionary ofrece las consultas de estadísticos de orden
+ * del AVL (rank, select, countInRange y percentile) sobre las claves, y su iterador recorre las
+ * claves de menor a mayor.
+ * <p>
+ * Las búsquedas usan un par de consulta reutilizable en lugar de crear uno por llamada, así que,
+ * como el resto de estructuras del paquete salvo ConcurrentHashTable, no es segura entre hilos.
+ * <p>
+ * Costes de los métodos:
+ * <ul>
+ *     <li>put: O(log N).</li>
+ *     <li>get: O(log N).</li>
+ *     <li>remove: O(log N).</li>
+ *     <li>contains: O(log N).</li>
+ *     <li>rank/select/countInRange/percentile: O(log N).</li>
+ *     <li>iterator: O(N) para el recorrido completo, en orden de clave.</li>
+ * </ul>
+ *
+ * @param <K> el tipo de las claves, que deben ser comparables
+ * @param <V> el tipo de los valores
+ * @author Marcos del Amo Fernández
+ * @version Práctica 2 - Parte 2 - Estructuras de Datos y Algoritmos
+ * @see AVL
+ * @see HashTable
+ */
+public class SortedTable<K extends Comparable<K>, V> implements Dictionary<K, V> {
+    private final AVL<Entry<K, V>> tree = new AVL<>();
+    private final Entry<K, V> probe = new Entry<>(null, null);
+
+    /**
+     * Clase que representa un par clave-valor del árbol. Se compara e iguala solo por la clave.
+     *
+     * @param <K> el tipo de la clave
+     * @param <V> el tipo del valor
+     */
+    private static final class Entry<K extends Comparable<K>, V> implements Comparable<Entry<K, V>> {
+        K key;
+        V value;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+        @Override
+        public int compareTo(Entry<K, V> other) {return key.compareTo(other.key);}
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> other && key.equals(other.key);
+        }
+        @Override
+        public int hashCode() {return key.hashCode();}
+    }
+    private AVL.TreeNode<Entry<K, V>> find(K key) {
+        probe.key = key;
+        AVL.TreeNode<Entry<K, V>> node = tree.search(probe);
+        probe.key = null;
+        return node;
+    }
+    /**
+     * Asocia el valor a la clave, sustituyendo el valor anterior si la clave ya existía.
+     *
+     * @param key la clave
+     * @param value el valor
+     * @return el valor anterior, o null si la clave no existía
+     */
+    @Override
+    public V put(K key, V value) {
+        if (key == null) throw new NullPointerException();
+        AVL.TreeNode<Entry<K, V>> node = find(key);
+        if (node != null) {
+            V old = node.val.value;
+            node.val.value = value;
+            return old;
+        }
+        tree.add(new Entry<>(key, value));
+        return null;
+    }
+    /**
+     * Obtiene el valor asociado a la clave.
+     *
+     * @param key la clave
+     * @return el valor asociado, o null si la clave no existe
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) return null;
+        AVL.TreeNode<Entry<K, V>> node = find(key);
+        return (node == null) ? null : node.val.value;
+    }
+    /**
+     * Elimina la clave y su valor.
+     *
+     * @param key la clave
+     * @return el valor que tenía asociado, o null si la clave no existía
+     */
+    @Override
+    public V remove(K key) {
+        if (key == null) return null;
+        AVL.TreeNode<Entry<K, V>> node = find(key);
+        if (node == null) return null;
+        V old = node.val.value;
+        tree.delete(node.val);
+        return old;
+    }
+    @Override
+    public boolean contains(K key) {
+        return key != null && find(key) != null;
+    }
+    @Override
+    public int size() {
+        return tree.getSize();
+    }
+    @Override
+    public boolean isEmpty() {
+        return tree.getSize() == 0;
+    }
+    @Override
+    public void clear() {
+        tree.root = null;
+        tree.size = 0;
+    }
+    /**
+     * Retorna el número de claves estrictamente menores que la clave dada.
+     *
+     * @param key la clave de referencia
+     * @return el número de claves menores que key
+     */
+    public int rank(K key) {
+        probe.key = key;
+        int rank = tree.rank(probe);
+        probe.key = null;
+        return rank;
+    }
+    /**
+     * Retorna la k-ésima menor clave, empezando en 0.
+     *
+     * @param k la posición de la clave en orden
+     * @return la clave en la posición k
+     * @throws WrongIndexException si la posición es inválida
+     */
+    public K select(int k) throws WrongIndexException {
+        return tree.select(k).key;
+    }
+    /**
+     * Retorna el número de claves comprendidas entre lo y hi, ambas incluidas.
+     *
+     * @param lo el límite inferior
+     * @param hi el límite superior
+     * @return el número de claves en [lo, hi]
+     */
+    public int countInRange(K lo, K hi) {
+        return tree.countInRange(new Entry<>(lo, null), new Entry<>(hi, null));
+    }
+    /**
+     * Retorna la clave del percentil p por el método del rango más cercano.
+     *
+     * @param p el percentil, entre 0 y 100
+     * @return la clave del percentil p, o null si el diccionario está vacío
+     * @throws IllegalArgumentException si p no está entre 0 y 100
+     */
+    public K percentile(double p) {
+        Entry<K, V> entry = tree.percentile(p);
+        return (entry == null) ? null : entry.key;
+    }
+    /**
+     * Retorna un iterador sobre las claves en orden ascendente.
+     *
+     * @return un iterador sobre las claves
+     */
+    @Override
+    public Iterator<K> iterator() {
+        Iterator<Entry<K, V>> it = tree.inorderIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {return it.hasNext();}
+            @Override
+            public K next() {return it.next().key;}
+        };
+    }
+    /**
+     * Retorna una representación en forma de cadena del diccionario, con los pares en orden de clave.
+     *
+     * @return una representación en forma de cadena del diccionario
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        Iterator<Entry<K, V>> it = tree.inorderIterator();
+        while (it.hasNext()) {
+            Entry<K, V> entry = it.next();
+            result.append(entry.key).append("=").append(entry.value);
+            if (it.hasNext()) result.append(", ");
+        }
+        return result.append("}").toString();
+    }
+}
@@ -0,0 +1,163 @@
+package eda.solutions;
+
+import eda.ds.AVL;
+import eda.ds.BPlusTree;
+
+import java.util.SplittableRandom;
+
+/**
+ * <h3>BenchArbol - Banco de pruebas de AVL frente a BPlusTree</h3>
+ * Construye cada árbol con N claves Integer en orden aleatorio y mide:
+ * <ul>
+ *     <li>B/elem: memoria retenida por el árbol por cada clave, medida como la diferencia de
+ *     heap ocupado tras un System.gc() antes y después de construirlo. Las claves ya existen
+ *     antes de construir, así que solo cuentan los nodos y sus arrays.</li>
+ *     <li>GET: búsqueda de una clave presente elegida al azar (search en AVL, get en BPlusTree).</li>
+ *     <li>RANGE: recorrido de 100 claves consecutivas a partir de una clave al azar (range en
+ *     los dos árboles).</li>
+ *     <li>ADD_DELETE: inserción de una clave nueva seguida de su borrado, de modo que el tamaño
+ *     no cambia entre iteraciones. Las claves se crean en preparar, así que la columna B/op
+ *     solo recoge lo que reservan los propios árboles: en el AVL, el TreeNode nuevo.</li>
+ * </ul>
+ * Compara AVL con BPlusTree de orden 32, 64 y 128. Con N = 10M la diferencia en GET se debe
+ * sobre todo a los fallos de caché: el AVL salta de nodo en nodo unos 24 niveles y el
+ * BPlusTree solo 4 o 5.
+ * <p>
+ * Ejemplo de uso (N = 10M, lotes de 100000 operaciones, 2 iteraciones de calentamiento y 5 medidas):
+ * <pre>{@code
+ * java -Xmx4g eda.solutions.BenchArbol 10000000 100000 2 5
+ * }</pre>
+ */
+public class BenchArbol {
+    private static final int RANGE = 100;
+    private static final SplittableRandom TARGETS = new SplittableRandom(7);
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) keys[i] = i;
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+
+        System.out.println("impl\tN\tB/elem\top\t" + Medidor.COLUMNAS);
+        medirAVL(keys, ops, warmup, iterations);
+        for (int order : new int[]{32, 64, 128}) medirBPlus(order, keys, ops, warmup, iterations);
+    }
+
+    private static void medirAVL(Integer[] keys, int ops, int warmup, int iterations) {
+        long before = usedHeap();
+        AVL<Integer> tree = new AVL<>();
+        for (Integer key : keys) tree.add(key);
+        long bytes = (usedHeap() - before) / keys.length;
+        Integer[] targets = new Integer[ops];
+        String prefix = "AVL\t" + keys.length + "\t" + bytes;
+
+        Medidor.Resultado get = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {fill(targets, keys);}
+
+            public long ejecutar() {
+                long sum = 0;
+                for (Integer key : targets) sum += tree.search(key).val;
+                return sum;
+            }
+        }, ops, warmup, iterations);
+        System.out.println(prefix + "\tGET\t" + get);
+
+        Medidor.Resultado range = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {fill(targets, keys);}
+
+            public long ejecutar() {
+                long sum = 0;
+                for (Integer key : targets) {
+                    var it = tree.range(key, key + RANGE - 1);
+                    while (it.hasNext()) sum += it.next();
+                }
+                return sum;
+            }
+        }, ops, warmup, iterations);
+        System.out.println(prefix + "\tRANGE\t" + range);
+
+        Medidor.Resultado addDelete = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {fillNew(targets, keys.length);}
+
+            public long ejecutar() {
+                for (Integer key : targets) {
+                    tree.add(key);
+                    tree.delete(key);
+                }
+                return tree.getSize();
+            }
+        }, ops, warmup, iterations);
+        System.out.println(prefix + "\tADD_DELETE\t" + addDelete);
+    }
+
+    private static void medirBPlus(int order, Integer[] keys, int ops, int warmup, int iterations) {
+        long before = usedHeap();
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(order);
+        for (Integer key : keys) tree.put(key, key);
+        long bytes = (usedHeap() - before) / keys.length;
+        Integer[] targets = new Integer[ops];
+        String prefix = "BPlusTree(" + order + ")\t" + keys.length + "\t" + bytes;
+
+        Medidor.Resultado get = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {fill(targets, keys);}
+
+            public long ejecutar() {
+                long sum = 0;
+                for (Integer key : targets) sum += tree.get(key);
+                return sum;
+            }
+        }, ops, warmup, iterations);
+        System.out.println(prefix + "\tGET\t" + get);
+
+        Medidor.Resultado range = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {fill(targets, keys);}
+
+            public long ejecutar() {
+                long sum = 0;
+                for (Integer key : targets) {
+                    var it = tree.range(key, key + RANGE - 1);
+                    while (it.hasNext()) sum += it.next();
+                }
+                return sum;
+            }
+        }, ops, warmup, iterations);
+        System.out.println(prefix + "\tRANGE\t" + range);
+
+        Medidor.Resultado addDelete = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {fillNew(targets, keys.length);}
+
+            public long ejecutar() {
+                for (Integer key : targets) {
+                    tree.put(key, key);
+                    tree.remove(key);
+                }
+                return tree.size();
+            }
+        }, ops, warmup, iterations);
+        System.out.println(prefix + "\tADD_DELETE\t" + addDelete);
+    }
+
+    private static void fillNew(Integer[] targets, int n) {
+        for (int i = 0; i < targets.length; i++) targets[i] = n + TARGETS.nextInt(n);
+    }
+
+    private static void fill(Integer[] targets, Integer[] keys) {
+        for (int i = 0; i < targets.length; i++) targets[i] = keys[TARGETS.nextInt(keys.length)];
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,87 @@
+package eda.solutions;
+
+import eda.adt.List;
+import eda.ds.GapBufferList;
+import eda.ds.ListImpl;
+import eda.ds.SkipList;
+import eda.exceptions.WrongIndexException;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * <h3>BenchLista - Banco de pruebas de acceso por posición en las implementaciones de List</h3>
+ * Sobre una lista de N elementos, mide lotes de operaciones en posiciones aleatorias:
+ * <ul>
+ *     <li>INSERT_DELETE: insert en una posición aleatoria seguido de delete en otra, de modo
+ *     que el tamaño no cambia entre iteraciones.</li>
+ *     <li>GET: get en una posición aleatoria.</li>
+ * </ul>
+ * Compara SkipList (O(log N)) con ListImpl y GapBufferList (O(N)). Con N = 1M, ListImpl tarda
+ * del orden de milisegundos por operación, por eso el lote por defecto es pequeño.
+ * <p>
+ * Ejemplo de uso (N = 1M, lotes de 1000 operaciones, 2 iteraciones de calentamiento y 5 medidas):
+ * <pre>{@code
+ * java eda.solutions.BenchLista 1000000 1000 2 5
+ * }</pre>
+ */
+public class BenchLista {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        System.out.println("impl\tN\top\t" + Medidor.COLUMNAS);
+        medir("SkipList", SkipList::new, n, ops, warmup, iterations);
+        medir("GapBufferList", GapBufferList::new, n, ops, warmup, iterations);
+        medir("ListImpl", ListImpl::new, n, ops, warmup, iterations);
+    }
+
+    private static void medir(String name, Supplier<List<Integer>> factory, int n, int ops, int warmup, int iterations) {
+        List<Integer> list = factory.get();
+        try {
+            for (int i = 0; i < n; i++) list.insert(i, i);
+        } catch (WrongIndexException e) {
+            throw new IllegalStateException(e);
+        }
+        int[] positions = new int[2 * ops];
+        SplittableRandom random = new SplittableRandom(42);
+
+        Medidor.Resultado insertDelete = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {
+                for (int i = 0; i < positions.length; i++) positions[i] = random.nextInt(n);
+            }
+
+            public long ejecutar() {
+                try {
+                    for (int i = 0; i < ops; i++) {
+                        list.insert(positions[2 * i], i);
+                        list.delete(positions[2 * i + 1]);
+                    }
+                } catch (WrongIndexException e) {
+                    throw new IllegalStateException(e);
+                }
+                return list.size();
+            }
+        }, ops, warmup, iterations);
+        System.out.println(name + "\t" + n + "\tINSERT_DELETE\t" + insertDelete);
+
+        Medidor.Resultado get = Medidor.medir(new Medidor.Caso() {
+            public void preparar() {
+                for (int i = 0; i < ops; i++) positions[i] = random.nextInt(n);
+            }
+
+            public long ejecutar() {
+                long sum = 0;
+                try {
+                    for (int i = 0; i < ops; i++) sum += list.get(positions[i]);
+                } catch (WrongIndexException e) {
+                    throw new IllegalStateException(e);
+                }
+                return sum;
+            }
+        }, ops, warmup, iterations);
+        System.out.println(name + "\t" + n + "\tGET\t" + get);
+    }
+}
@@ -0,0 +1,193 @@
+package eda.solutions;
+
+import eda.adt.Dictionary;
+import eda.ds.HashTable;
+import eda.ds.RobinHoodHashTable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * <h3>BenchTabla - Banco de pruebas de las implementaciones de Dictionary</h3>
+ * Mide put, get (acierto y fallo), remove e iteración sobre HashTable (con rehashing de una vez
+ * e incremental), RobinHoodHashTable y java.util.HashMap como referencia, combinando:
+ * <ul>
+ *     <li>Tamaño: tablas de 2^10 a 2^23 cubetas (de 1K a 8M), hasta el máximo indicado.</li>
+ *     <li>Distribución de claves: enteros secuenciales, enteros aleatorios, cadenas y claves con
+ *     colisiones (grupos de 64 claves Comparable con el mismo hashCode()).</li>
+ *     <li>Factor de carga: la tabla se crea con la capacidad indicada y se llena al 25%, 50% o 75%.
+ *     Todas las implementaciones usan potencias de dos y umbral 0.75, así que la geometría es la
+ *     misma en todas ellas y ninguna redimensiona durante la medición.</li>
+ * </ul>
+ * Además, PUT_GROW llena la tabla desde la capacidad por defecto para medir el coste de los rehashings.
+ * PUT_ALL hace lo mismo con una sola llamada a putAll y REMOVE_ALL vacía la tabla con removeAll,
+ * para compararlos con el bucle clave a clave de PUT_GROW y REMOVE.
+ * Cada fila indica la mediana de ns por operación, los bytes reservados por operación y las
+ * recolecciones durante la medición (ver {@link Medidor}). La salida está separada por
+ * tabuladores para poder comparar dos ejecuciones con diff o importarla en una hoja de cálculo.
+ * <p>
+ * Ejemplo de uso (máximo de 2^20 cubetas, 3 iteraciones de calentamiento y 5 medidas):
+ * <pre>{@code
+ * java -Xmx4g eda.solutions.BenchTabla 1048576 3 5
+ * }</pre>
+ * Con 2^23 cubetas hacen falta varios GB de memoria y varios minutos.
+ */
+public class BenchTabla {
+    private static final int[] CAPACITIES = {1 << 10, 1 << 14, 1 << 17, 1 << 20, 1 << 23};
+    private static final double[] LOADS = {0.25, 0.5, 0.75};
+
+    public static void main(String[] args) {
+        int maxCapacity = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("impl\tclaves\tcapacidad\tcarga\top\t" + Medidor.COLUMNAS);
+        for (int capacity : CAPACITIES) {
+            if (capacity > maxCapacity) break;
+            for (Claves claves : Claves.values()) {
+                for (double load : LOADS) {
+                    int size = (int) (capacity * load);
+                    Object[] keys = claves.generate(size, 0);
+                    Object[] missing = claves.generate(size, size);
+                    for (Impl impl : Impl.values()) {
+                        for (Op op : Op.values()) {
+                            if ((op == Op.PUT_GROW || op == Op.PUT_ALL) && load != 0.75) continue;
+                            Medidor.Resultado r = Medidor.medir(op.caso(impl, capacity, keys, missing), size, warmup, iterations);
+                            System.out.println(impl + "\t" + claves + "\t" + capacity + "\t" + load + "\t" + op + "\t" + r);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Distribuciones de claves. generate(n, offset) produce n claves distintas a partir del índice
+     * offset, de modo que dos rangos disjuntos no comparten claves (las de fallo se generan así).
+     */
+    private enum Claves {
+        SECUENCIAL {
+            Object key(int i) {return i;}
+        },
+        ALEATORIA {
+            Object key(int i) {return i * 0x9E3779B1;}
+        },
+        CADENA {
+            Object key(int i) {return "clave-" + Integer.toString(i * 0x9E3779B1, 36);}
+        },
+        COLISION {
+            Object key(int i) {return new Colision(i);}
+        };
+
+        abstract Object key(int i);
+
+        /**
+         * Genera las claves en orden aleatorio, para que insertar no recorra la tabla en orden.
+         */
+        Object[] generate(int n, int offset) {
+            Object[] keys = new Object[n];
+            for (int i = 0; i < n; i++) keys[i] = key(offset + i);
+            SplittableRandom random = new SplittableRandom(n);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Object aux = keys[i];
+                keys[i] = keys[j];
+                keys[j] = aux;
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Clave cuyo hashCode() es el mismo para cada grupo de 64 valores consecutivos.
+     */
+    private record Colision(int value) implements Comparable<Colision> {
+        public int hashCode() {return value >>> 6;}
+        public int compareTo(Colision o) {return Integer.compare(value, o.value);}
+    }
+
+    private enum Impl {
+        HASH_TABLE {
+            Dictionary<Object, Object> create(int capacity) {return new HashTable<>(capacity, false);}
+        },
+        HASH_TABLE_INCREMENTAL {
+            Dictionary<Object, Object> create(int capacity) {return new HashTable<>(capacity, true);}
+        },
+        ROBIN_HOOD {
+            Dictionary<Object, Object> create(int capacity) {return new RobinHoodHashTable<>(capacity);}
+        },
+        HASH_MAP {
+            Dictionary<Object, Object> create(int capacity) {return new HashMapDictionary<>(capacity);}
+        };
+
+        abstract Dictionary<Object, Object> create(int capacity);
+    }
+
+    private enum Op {
+        PUT, PUT_GROW, PUT_ALL, GET, GET_MISS, REMOVE, REMOVE_ALL, ITERATE;
+
+        /**
+         * Construye el caso de medición de esta operación. PUT, PUT_GROW y PUT_ALL preparan una
+         * tabla vacía; el resto, una tabla llena con las claves.
+         */
+        Medidor.Caso caso(Impl impl, int capacity, Object[] keys, Object[] missing) {
+            Op op = this;
+            return new Medidor.Caso() {
+                private Dictionary<Object, Object> table;
+
+                public void preparar() {
+                    table = impl.create(op == PUT_GROW || op == PUT_ALL ? 16 : capacity);
+                    if (op != PUT && op != PUT_GROW && op != PUT_ALL) {
+                        for (Object key : keys) table.put(key, key);
+                    }
+                }
+
+                public long ejecutar() {
+                    long result = 0;
+                    switch (op) {
+                        case PUT, PUT_GROW -> {
+                            for (Object key : keys) table.put(key, key);
+                            result = table.size();
+                        }
+                        case PUT_ALL -> {
+                            table.putAll(keys, keys);
+                            result = table.size();
+                        }
+                        case GET -> {
+                            for (Object key : keys) if (table.get(key) != null) result++;
+                        }
+                        case GET_MISS -> {
+                            for (Object key : missing) if (table.get(key) == null) result++;
+                        }
+                        case REMOVE -> {
+                            for (Object key : keys) if (table.remove(key) != null) result++;
+                        }
+                        case REMOVE_ALL -> result = table.removeAll(keys);
+                        case ITERATE -> {
+                            for (Object key : table) result += key.hashCode();
+                        }
+                    }
+                    return result;
+                }
+            };
+        }
+    }
+
+    /**
+     * Adaptador de java.util.HashMap a Dictionary, como referencia.
+     */
+    private static class HashMapDictionary<K, V> implements Dictionary<K, V> {
+        private final Map<K, V> map;
+        HashMapDictionary(int capacity) {this.map = new HashMap<>(capacity);}
+        public V put(K key, V value) {return map.put(key, value);}
+        public V get(K key) {return map.get(key);}
+        public V remove(K key) {return map.remove(key);}
+        public boolean contains(K key) {return map.containsKey(key);}
+        public int size() {return map.size();}
+        public boolean isEmpty() {return map.isEmpty();}
+        public void clear() {map.clear();}
+        public Iterator<K> iterator() {return map.keySet().iterator();}
+    }
+}
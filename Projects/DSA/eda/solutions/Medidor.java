@@ -0,0 +1,109 @@
+package eda.solutions;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h3>Medidor - Utilidad común de los bancos de pruebas de rendimiento</h3>
+ * Ejecuta un caso varias veces, descartando las primeras iteraciones como calentamiento, y
+ * devuelve la mediana del tiempo por operación junto con lo que haría el perfilador de GC de
+ * JMH: bytes reservados por operación (según el contador de reservas del hilo) y número y
+ * duración de las recolecciones durante la medición.
+ * <p>
+ * No sustituye a JMH (no bifurca la JVM ni controla el plegado de constantes más allá de un
+ * sumidero volátil), pero no necesita ninguna dependencia ni fichero de construcción.
+ */
+public final class Medidor {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+    /**
+     * Sumidero de los resultados de los casos, para que el JIT no elimine el trabajo medido.
+     */
+    public static volatile long sink;
+
+    private Medidor() {}
+
+    /**
+     * Un caso de medición: la preparación no se mide, la ejecución sí.
+     */
+    public interface Caso {
+        /**
+         * Prepara el estado de una iteración (por ejemplo, construye y llena la estructura).
+         */
+        void preparar();
+        /**
+         * Ejecuta el trabajo medido.
+         *
+         * @return un valor derivado del trabajo, que se acumula en el sumidero
+         */
+        long ejecutar();
+    }
+
+    /**
+     * Resultado de una medición.
+     *
+     * @param nsPerOp mediana de nanosegundos por operación
+     * @param bytesPerOp media de bytes reservados por operación
+     * @param gcCount recolecciones durante las iteraciones medidas
+     * @param gcMillis milisegundos de recolección durante las iteraciones medidas
+     */
+    public record Resultado(double nsPerOp, double bytesPerOp, long gcCount, long gcMillis) {
+        public String toString() {
+            return String.format("%.2f\t%.1f\t%d\t%d", nsPerOp, bytesPerOp, gcCount, gcMillis);
+        }
+    }
+
+    /**
+     * Cabecera de columnas correspondiente a {@link Resultado#toString()}.
+     */
+    public static final String COLUMNAS = "ns/op\tB/op\tgc\tgc ms";
+
+    /**
+     * Mide un caso.
+     *
+     * @param caso el caso a medir
+     * @param ops el número de operaciones que realiza cada ejecución
+     * @param warmup las iteraciones de calentamiento, que no se cuentan
+     * @param iterations las iteraciones medidas
+     * @return el resultado de las iteraciones medidas
+     */
+    public static Resultado medir(Caso caso, int ops, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            caso.preparar();
+            sink += caso.ejecutar();
+        }
+        double[] times = new double[iterations];
+        long bytes = 0;
+        long gcCount = 0, gcMillis = 0;
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i++) {
+            caso.preparar();
+            long collections = gcCount(), collectionMillis = gcMillis();
+            long allocated = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            sink += caso.ejecutar();
+            long elapsed = System.nanoTime() - start;
+            bytes += THREADS.getThreadAllocatedBytes(thread) - allocated;
+            gcCount += gcCount() - collections;
+            gcMillis += gcMillis() - collectionMillis;
+            times[i] = (double) elapsed / ops;
+        }
+        Arrays.sort(times);
+        return new Resultado(times[iterations / 2], (double) bytes / ((long) ops * iterations), gcCount, gcMillis);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : COLLECTORS) count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : COLLECTORS) millis += Math.max(0, gc.getCollectionTime());
+        return millis;
+    }
+}
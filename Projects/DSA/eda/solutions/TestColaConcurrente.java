@@ -0,0 +1,130 @@
+package eda.solutions;
+
+import eda.ds.ConcurrentQueue;
+import eda.ds.ListImpl;
+import eda.exceptions.WrongIndexException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h3>TestColaConcurrente - Curva de rendimiento de ConcurrentQueue</h3>
+ * Reparte los hilos a partes iguales entre productores y consumidores (1+1, 2+2, ... hasta N
+ * hilos en total, siendo N el número de procesadores y al menos 2) y mide cuántos elementos por
+ * segundo atraviesan la cola. Compara ConcurrentQueue con una ListImpl protegida por un único
+ * cerrojo global, en la que offer es insert(size) y poll es get(0) seguido de delete(0).
+ * <p>
+ * Al terminar comprueba que se han consumido exactamente los elementos producidos y que la
+ * suma de los consumidos coincide con la de los producidos.
+ * <p>
+ * Como en TestTablaConcurrente, es una medición de reloj de pared: sirve para ver la forma de
+ * la curva bajo contención, no para comparar cifras absolutas entre máquinas.
+ *
+ * Ejemplo de uso:
+ * <pre>{@code
+ * java eda.solutions.TestColaConcurrente 1000000
+ * }</pre>
+ */
+public class TestColaConcurrente {
+    public static void main(String[] args) throws InterruptedException {
+        int itemsPerProducer = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        System.out.println("hilos\tConcurrentQueue (elem/s)\tListImpl sincronizada (elem/s)");
+        for (int threads = 2; ; threads = Math.min(threads * 2, maxThreads)) {
+            long lockFree = measure(new LockFree<>(), threads / 2, itemsPerProducer);
+            long locked = measure(new SynchronizedList<>(), threads / 2, itemsPerProducer);
+            System.out.println(threads + "\t" + lockFree + "\t\t\t\t" + locked);
+            if (threads == maxThreads) break;
+        }
+    }
+
+    /**
+     * Operaciones de cola comunes a las dos implementaciones comparadas.
+     */
+    private interface Cola<E> {
+        void offer(E data);
+        E poll();
+    }
+
+    private static class LockFree<E> implements Cola<E> {
+        private final ConcurrentQueue<E> queue = new ConcurrentQueue<>();
+        public void offer(E data) {queue.offer(data);}
+        public E poll() {return queue.poll();}
+    }
+
+    /**
+     * ListImpl con un cerrojo global, como la usaríamos hoy entre productores y consumidores.
+     */
+    private static class SynchronizedList<E> implements Cola<E> {
+        private final ListImpl<E> list = new ListImpl<>();
+        public synchronized void offer(E data) {
+            try {
+                list.insert(list.size(), data);
+            } catch (WrongIndexException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        public synchronized E poll() {
+            if (list.size() == 0) return null;
+            try {
+                E data = list.get(0);
+                list.delete(0);
+                return data;
+            } catch (WrongIndexException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Lanza los productores y consumidores indicados y espera a que se consuman todos los elementos.
+     *
+     * @return los elementos por segundo que atraviesan la cola
+     */
+    private static long measure(Cola<Integer> queue, int pairs, int itemsPerProducer) throws InterruptedException {
+        long total = (long) pairs * itemsPerProducer;
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong consumedSum = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2 * pairs);
+        for (int p = 0; p < pairs; p++) {
+            new Thread(() -> {
+                await(start);
+                for (int i = 0; i < itemsPerProducer; i++) queue.offer(i);
+                done.countDown();
+            }).start();
+            new Thread(() -> {
+                await(start);
+                long sum = 0;
+                while (consumed.get() < total) {
+                    Integer data = queue.poll();
+                    if (data == null) Thread.onSpinWait();
+                    else {
+                        sum += data;
+                        consumed.incrementAndGet();
+                    }
+                }
+                consumedSum.addAndGet(sum);
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        long expectedSum = (long) pairs * itemsPerProducer * (itemsPerProducer - 1) / 2;
+        if (consumed.get() != total || consumedSum.get() != expectedSum) {
+            throw new IllegalStateException("Se han perdido o duplicado elementos");
+        }
+        return total * 1_000_000_000L / elapsed;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
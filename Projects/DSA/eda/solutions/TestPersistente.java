@@ -0,0 +1,114 @@
+package eda.solutions;
+
+import eda.ds.PersistentHashTable;
+import eda.ds.PersistentList;
+import eda.exceptions.WrongIndexException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * <h3>TestPersistente - Instantáneas de PersistentList y PersistentHashTable</h3>
+ * Guarda versiones de cada estructura, sigue modificándolas y comprueba que las versiones
+ * antiguas no cambian. En la tabla se usan claves con el mismo hashCode() ("Aa", "BB" y "C#")
+ * para pasar por los nodos de colisión y por el colapso de un único par al eliminar.
+ */
+public class TestPersistente {
+    public static void main(String[] args) throws WrongIndexException {
+        probarLista();
+        probarTabla();
+        probarVersiones();
+    }
+
+    private static void probarLista() throws WrongIndexException {
+        PersistentList<String> v0 = PersistentList.empty();
+        PersistentList<String> v1 = v0.insert(0, "Elemento1").insert(1, "Elemento2").insert(2, "Elemento3");
+        String v1Antes = v1.toString();
+        PersistentList<String> v2 = v1.delete(1);
+        PersistentList<String> v3 = v2.set(0, "Cambiado").insert(2, "Elemento4");
+
+        System.out.println("Lista v0: " + v0);
+        System.out.println("Lista v1: " + v1);
+        System.out.println("Lista v2 (v1 sin la posición 1): " + v2);
+        System.out.println("Lista v3 (v2 con set e insert): " + v3);
+        if (!v1.toString().equals(v1Antes) || !v2.toString().equals("[Elemento1 -> Elemento3]"))
+            throw new IllegalStateException("Una versión de la lista ha cambiado");
+        if (v0.size() != 0 || v1.size() != 3 || v2.size() != 2 || v3.size() != 3)
+            throw new IllegalStateException("Tamaños de versión incorrectos");
+        System.out.println("Elemento en posición 0 de v2 y de v3: " + v2.get(0) + " / " + v3.get(0));
+    }
+
+    private static void probarTabla() {
+        // "Aa", "BB" y "C#" tienen el mismo hashCode(), así que acaban en un nodo de colisión.
+        PersistentHashTable<String, Integer> v0 = PersistentHashTable.<String, Integer>empty().put("clave1", 1).put("Aa", 10);
+        PersistentHashTable<String, Integer> v1 = v0.put("BB", 20).put("C#", 30);
+        PersistentHashTable<String, Integer> v2 = v1.remove("Aa").put("clave1", 100);
+        PersistentHashTable<String, Integer> v3 = v2.remove("BB");
+        PersistentHashTable<String, Integer> v4 = v3.remove("C#");
+
+        System.out.println("Tabla v0: " + v0);
+        System.out.println("Tabla v1 (con BB y C#): " + v1);
+        System.out.println("Tabla v2 (sin Aa, clave1 = 100): " + v2);
+        System.out.println("Tabla v3 (solo queda C# de la colisión): " + v3);
+        System.out.println("Tabla v4 (sin colisiones): " + v4);
+        System.out.println("BB en v1: " + v1.get("BB") + ", en v3: " + v3.get("BB"));
+        System.out.println("C# en v3: " + v3.get("C#") + ", clave1 en v0: " + v0.get("clave1") + ", en v2: " + v2.get("clave1"));
+
+        if (v0.size() != 2 || v1.size() != 4 || v2.size() != 3 || v3.size() != 2 || v4.size() != 1)
+            throw new IllegalStateException("Tamaños de versión incorrectos");
+        if (v0.get("Aa") != 10 || v1.get("Aa") != 10 || v2.contains("Aa") || v1.get("C#") != 30
+                || v3.get("C#") != 30 || v4.contains("C#") || v0.get("clave1") != 1 || v4.get("clave1") != 100)
+            throw new IllegalStateException("Una versión de la tabla ha cambiado");
+    }
+
+    /**
+     * Aplica operaciones aleatorias guardando cada versión junto con una copia de referencia en
+     * un HashMap, y al final comprueba todas las versiones. Las claves se reparten en grupos con
+     * el mismo hashCode() para que haya colisiones en todos los niveles.
+     */
+    private static void probarVersiones() {
+        SplittableRandom random = new SplittableRandom(19);
+        ArrayList<PersistentHashTable<Clave, Integer>> versions = new ArrayList<>();
+        ArrayList<Map<Clave, Integer>> expected = new ArrayList<>();
+        PersistentHashTable<Clave, Integer> table = PersistentHashTable.empty();
+        Map<Clave, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            Clave key = new Clave(random.nextInt(2_000));
+            if (random.nextInt(3) == 0) {
+                table = table.remove(key);
+                reference.remove(key);
+            } else {
+                table = table.put(key, i);
+                reference.put(key, i);
+            }
+            if (i % 500 == 0) {
+                versions.add(table);
+                expected.add(new HashMap<>(reference));
+            }
+        }
+        for (int v = 0; v < versions.size(); v++) {
+            PersistentHashTable<Clave, Integer> version = versions.get(v);
+            Map<Clave, Integer> map = expected.get(v);
+            if (version.size() != map.size()) throw new IllegalStateException("Versión " + v + ": size() = " + version.size());
+            for (int k = 0; k < 2_000; k++) {
+                Clave key = new Clave(k);
+                if (!Objects.equals(version.get(key), map.get(key)))
+                    throw new IllegalStateException("Versión " + v + ": " + key + " = " + version.get(key));
+            }
+            int iterated = 0;
+            for (Clave ignored : version) iterated++;
+            if (iterated != map.size()) throw new IllegalStateException("Versión " + v + ": el iterador recorre " + iterated);
+        }
+        System.out.println(versions.size() + " versiones de la tabla intactas tras 20000 operaciones");
+    }
+
+    /**
+     * Clave cuyo hashCode() es el mismo para cada grupo de 4 valores consecutivos.
+     */
+    private record Clave(int value) {
+        public int hashCode() {return value >>> 2;}
+    }
+}
@@ -2,12 +2,20 @@ package eda.solutions;
 
 import eda.adt.Dictionary;
 import eda.ds.HashTable;
+import eda.ds.RobinHoodHashTable;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
 
 public class TestTabla {
     public static void main(String[] args) {
-        Dictionary<String, Integer> hashTable = new HashTable<>(1);
+        probar(new HashTable<>(1));
+        probar(new RobinHoodHashTable<>(1));
+    }
+
+    private static void probar(Dictionary<String, Integer> hashTable) {
+        System.out.println("==== " + hashTable.getClass().getSimpleName() + " ====");
         System.out.println(hashTable);
         hashTable.put("clave1", 1);
         System.out.println(hashTable);
@@ -49,5 +57,20 @@ public class TestTabla {
         hashTable.clear();
         System.out.println("¿Está vacía después de limpiar? " + hashTable.isEmpty());
 
+        // Tras dividir el Spliterator, ninguna mitad puede anunciar un tamaño exacto que no cumple.
+        for (int i = 0; i < 100_000; i++) hashTable.put("k" + i, i);
+        Spliterator<String> suffix = hashTable.spliterator();
+        Spliterator<String> prefix = suffix.trySplit();
+        long total = StreamSupport.stream(prefix, false).toArray().length
+                + StreamSupport.stream(suffix, false).toArray().length;
+        System.out.println("Claves recorridas tras dividir: " + total + " de " + hashTable.size());
+        if (total != hashTable.size()) throw new IllegalStateException("El Spliterator ha perdido o repetido claves");
+
+        // Tras eliminar la mitad de las claves, las restantes deben seguir localizándose.
+        for (int i = 0; i < 100_000; i += 2) hashTable.remove("k" + i);
+        for (int i = 0; i < 100_000; i++) {
+            if (hashTable.contains("k" + i) != (i % 2 == 1)) throw new IllegalStateException("Clave k" + i + " mal localizada tras eliminar");
+        }
+        System.out.println("Claves tras eliminar la mitad: " + hashTable.size());
     }
 }
\ No newline at end of file
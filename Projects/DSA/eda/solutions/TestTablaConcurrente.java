@@ -0,0 +1,90 @@
+package eda.solutions;
+
+import eda.adt.Dictionary;
+import eda.ds.ConcurrentHashTable;
+import eda.ds.HashTable;
+
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <h3>TestTablaConcurrente - Curva de rendimiento de ConcurrentHashTable</h3>
+ * Mide las operaciones por segundo de una carga mixta (80% get, 10% put, 10% remove) con
+ * 1, 2, 4, ... hasta N hilos, siendo N el número de procesadores, y la compara con una
+ * HashTable protegida por un único cerrojo global.
+ * <p>
+ * Es una medición de reloj de pared sin el aislamiento de JMH: sirve para ver la forma de la
+ * curva (si escala o no con los hilos), no para comparar cifras absolutas entre máquinas.
+ *
+ * Ejemplo de uso:
+ * <pre>{@code
+ * java eda.solutions.TestTablaConcurrente 1000000
+ * }</pre>
+ */
+public class TestTablaConcurrente {
+    private static final int KEYS = 1 << 16;
+
+    public static void main(String[] args) throws InterruptedException {
+        int opsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("hilos\tConcurrentHashTable (ops/s)\tHashTable sincronizada (ops/s)");
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            long concurrent = measure(new ConcurrentHashTable<>(), threads, opsPerThread);
+            long locked = measure(new SynchronizedTable<>(new HashTable<>()), threads, opsPerThread);
+            System.out.println(threads + "\t" + concurrent + "\t\t\t\t" + locked);
+            if (threads == maxThreads) break;
+        }
+    }
+
+    /**
+     * Precarga la tabla con la mitad de las claves y ejecuta la carga mixta en los hilos indicados.
+     *
+     * @return las operaciones por segundo agregadas de todos los hilos
+     */
+    private static long measure(Dictionary<Integer, Integer> table, int threads, int opsPerThread) throws InterruptedException {
+        for (int i = 0; i < KEYS; i += 2) table.put(i, i);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < opsPerThread; i++) {
+                    int key = random.nextInt(KEYS);
+                    int op = random.nextInt(10);
+                    if (op == 0) table.put(key, i);
+                    else if (op == 1) table.remove(key);
+                    else table.get(key);
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        return (long) threads * opsPerThread * 1_000_000_000L / elapsed;
+    }
+
+    /**
+     * Envoltorio con un cerrojo global, equivalente al que usábamos antes sobre HashTable.
+     */
+    private static class SynchronizedTable<K, V> implements Dictionary<K, V> {
+        private final Dictionary<K, V> table;
+        SynchronizedTable(Dictionary<K, V> table) {this.table = table;}
+        public synchronized V put(K key, V value) {return table.put(key, value);}
+        public synchronized V get(K key) {return table.get(key);}
+        public synchronized V remove(K key) {return table.remove(key);}
+        public synchronized boolean contains(K key) {return table.contains(key);}
+        public synchronized int size() {return table.size();}
+        public synchronized boolean isEmpty() {return table.isEmpty();}
+        public synchronized void clear() {table.clear();}
+        public Iterator<K> iterator() {return table.iterator();}
+    }
+}
@@ -0,0 +1,82 @@
+package eda.solutions;
+
+import eda.ds.MappedHashTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <h3>TestTablaMapeada - Persistencia de MappedHashTable</h3>
+ * Llena una tabla respaldada por un fichero temporal, la cierra y la reabre, sobrescribe y
+ * elimina claves, provoca un put fallido, compacta y vuelve a reabrirla, comprobando en cada
+ * paso que el contenido y size() coinciden con lo esperado.
+ */
+public class TestTablaMapeada {
+    private static final int N = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("tabla", ".bin");
+        Files.delete(file);
+        try {
+            try (MappedHashTable<String, String> tabla = abrir(file)) {
+                for (int i = 0; i < N; i++) tabla.put("clave" + i, "valor" + i);
+                System.out.println("Creada: " + tabla.size() + " entradas");
+            }
+
+            try (MappedHashTable<String, String> tabla = abrir(file)) {
+                comprobar(tabla, N, "valor", "tras reabrir");
+                for (int i = 0; i < N; i += 2) tabla.put("clave" + i, "nuevo" + i);
+                for (int i = 1; i < N; i += 4) tabla.remove("clave" + i);
+                System.out.println("Bytes muertos tras sobrescribir y eliminar: " + tabla.garbage());
+
+                // Un put cuyo valor no se puede codificar no debe perder el valor anterior.
+                try {
+                    tabla.put("clave0", null);
+                    throw new IllegalStateException("put con valor null no ha fallado");
+                } catch (NullPointerException e) {
+                    System.out.println("put(clave0, null) rechazado; clave0 = " + tabla.get("clave0"));
+                }
+                if (!"nuevo0".equals(tabla.get("clave0"))) throw new IllegalStateException("Se ha perdido clave0");
+
+                int before = tabla.size();
+                tabla.compact();
+                System.out.println("Compactada: " + tabla.size() + " entradas, " + tabla.garbage() + " bytes muertos");
+                if (tabla.size() != before || tabla.garbage() != 0) throw new IllegalStateException("compact ha cambiado el contenido");
+            }
+
+            try (MappedHashTable<String, String> tabla = abrir(file)) {
+                comprobarModificada(tabla);
+                System.out.println("Reabierta tras compactar: " + tabla.size() + " entradas correctas");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static MappedHashTable<String, String> abrir(Path file) {
+        return new MappedHashTable<>(file, 16, MappedHashTable.Codec.STRING, MappedHashTable.Codec.STRING);
+    }
+
+    private static void comprobar(MappedHashTable<String, String> tabla, int n, String prefijo, String paso) {
+        if (tabla.size() != n) throw new IllegalStateException("size() = " + tabla.size() + " " + paso);
+        for (int i = 0; i < n; i++) {
+            if (!(prefijo + i).equals(tabla.get("clave" + i))) throw new IllegalStateException("clave" + i + " " + paso);
+        }
+        System.out.println("Contenido correcto " + paso);
+    }
+
+    private static void comprobarModificada(MappedHashTable<String, String> tabla) {
+        int expected = 0;
+        for (int i = 0; i < N; i++) {
+            String value = tabla.get("clave" + i);
+            String wanted = (i % 2 == 0) ? "nuevo" + i : (i % 4 == 1) ? null : "valor" + i;
+            if (wanted == null ? value != null : !wanted.equals(value)) throw new IllegalStateException("clave" + i + " = " + value);
+            if (wanted != null) expected++;
+        }
+        if (tabla.size() != expected) throw new IllegalStateException("size() = " + tabla.size() + ", esperado " + expected);
+        int iterated = 0;
+        for (String ignored : tabla) iterated++;
+        if (iterated != expected) throw new IllegalStateException("El iterador recorre " + iterated + " claves");
+    }
+}